@@ -25,6 +25,7 @@ import org.apache.ibatis.builder.annotation.MapperAnnotationBuilder;
 import org.apache.ibatis.io.ResolverUtil;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.StartupReport;
 
 /**
  * @author Clinton Begin
@@ -68,8 +69,10 @@ public class MapperRegistry {
         // It's important that the type is added before the parser is run
         // otherwise the binding may automatically be attempted by the
         // mapper parser. If the type is already known, it won't try.
-        MapperAnnotationBuilder parser = new MapperAnnotationBuilder(config, type);
-        parser.parse();
+        try (StartupReport.Step step = config.startPhase(StartupReport.MAPPER_ANNOTATIONS, type.getName())) {
+          MapperAnnotationBuilder parser = new MapperAnnotationBuilder(config, type);
+          parser.parse();
+        }
         loadCompleted = true;
       } finally {
         if (!loadCompleted) {
@@ -102,7 +105,9 @@ public class MapperRegistry {
    */
   public void addMappers(String packageName, Class<?> superType) {
     ResolverUtil<Class<?>> resolverUtil = new ResolverUtil<>();
-    resolverUtil.find(new ResolverUtil.IsA(superType), packageName);
+    try (StartupReport.Step step = config.startPhase(StartupReport.MAPPER_SCAN, packageName)) {
+      resolverUtil.find(new ResolverUtil.IsA(superType), packageName);
+    }
     Set<Class<? extends Class<?>>> mapperSet = resolverUtil.getClasses();
     for (Class<?> mapperClass : mapperSet) {
       addMapper(mapperClass);
@@ -15,7 +15,17 @@
  */
 package org.apache.ibatis.builder;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.ibatis.mapping.Discriminator;
 import org.apache.ibatis.mapping.ResultMap;
@@ -49,4 +59,96 @@ public class ResultMapResolver {
         this.autoMapping);
   }
 
+  /**
+   * Returns the id of the result map this one extends, qualified with the namespace.
+   *
+   * @return the id of the parent result map, or {@code null} if it does not extend another result map
+   *
+   * @since 3.5.14
+   */
+  public String getExtend() {
+    return assistant.applyCurrentNamespace(extend, true);
+  }
+
+  /**
+   * Resolves the pending result maps in the order of their {@code extends} hierarchy.
+   * <p>
+   * A result map is resolved only once its parent exists, and resolving a parent releases the result maps that extend
+   * it. So each result map is resolved at most once, instead of retrying all pending result maps until nothing changes.
+   * The resolved result maps are removed from the collection, the others (i.e. the ones with a missing parent) are
+   * left.
+   * </p>
+   *
+   * @param resolvers
+   *          the pending result maps
+   *
+   * @since 3.5.14
+   */
+  public static void resolveAll(Collection<ResultMapResolver> resolvers) {
+    if (resolvers.isEmpty()) {
+      return;
+    }
+    Map<String, List<ResultMapResolver>> children = new HashMap<>();
+    Deque<ResultMapResolver> ready = new ArrayDeque<>();
+    for (ResultMapResolver resolver : resolvers) {
+      String parent = resolver.getExtend();
+      if (parent == null || resolver.assistant.getConfiguration().hasResultMap(parent)) {
+        ready.add(resolver);
+      } else {
+        children.computeIfAbsent(parent, k -> new ArrayList<>()).add(resolver);
+      }
+    }
+    Set<ResultMapResolver> resolved = Collections.newSetFromMap(new IdentityHashMap<>());
+    while (!ready.isEmpty()) {
+      ResultMapResolver resolver = ready.poll();
+      ResultMap resultMap;
+      try {
+        resultMap = resolver.resolve();
+      } catch (IncompleteElementException e) {
+        // ResultMap is still missing a resource...
+        continue;
+      }
+      resolved.add(resolver);
+      List<ResultMapResolver> waiting = children.remove(resultMap.getId());
+      if (waiting != null) {
+        ready.addAll(waiting);
+      }
+    }
+    if (!resolved.isEmpty()) {
+      resolvers.removeIf(resolved::contains);
+    }
+  }
+
+  /**
+   * Creates the exception that reports why the result maps left by {@link #resolveAll(Collection)} cannot be resolved,
+   * i.e. the missing parent or the cycle of result maps that extend each other.
+   *
+   * @param unresolved
+   *          the unresolved result maps
+   *
+   * @return the exception
+   *
+   * @since 3.5.14
+   */
+  public static IncompleteElementException unresolvedException(Collection<ResultMapResolver> unresolved) {
+    Map<String, ResultMapResolver> byId = new HashMap<>();
+    for (ResultMapResolver resolver : unresolved) {
+      byId.put(resolver.assistant.applyCurrentNamespace(resolver.id, false), resolver);
+    }
+    ResultMapResolver resolver = unresolved.iterator().next();
+    Set<String> path = new LinkedHashSet<>();
+    String id = resolver.assistant.applyCurrentNamespace(resolver.id, false);
+    while (resolver != null && path.add(id)) {
+      id = resolver.getExtend();
+      resolver = id == null ? null : byId.get(id);
+    }
+    if (resolver != null) {
+      List<String> cycle = new ArrayList<>(path);
+      cycle = cycle.subList(cycle.indexOf(id), cycle.size());
+      return new IncompleteElementException(
+          "Result maps extend each other in a cycle: " + String.join(" -> ", cycle) + " -> " + id);
+    }
+    return new IncompleteElementException("Could not find a parent resultmap with id '" + id + "'");
+  }
+
 }
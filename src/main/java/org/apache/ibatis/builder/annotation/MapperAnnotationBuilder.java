@@ -470,7 +470,8 @@ public class MapperAnnotationBuilder {
           result.jdbcType() == JdbcType.UNDEFINED ? null : result.jdbcType(),
           hasNestedSelect(result) ? nestedSelectId(result) : null,
           hasNestedResultMap ? nestedResultMapId(result) : null, null,
-          hasNestedResultMap ? findColumnPrefix(result) : null, typeHandler, flags, null, null, isLazy(result));
+          hasNestedResultMap ? findColumnPrefix(result) : null, typeHandler, flags, null, null, isLazy(result),
+          isBatch(result));
       resultMappings.add(resultMapping);
     }
   }
@@ -515,13 +516,28 @@ public class MapperAnnotationBuilder {
   private boolean isLazy(Result result) {
     boolean isLazy = configuration.isLazyLoadingEnabled();
     if (result.one().select().length() > 0 && FetchType.DEFAULT != result.one().fetchType()) {
-      isLazy = result.one().fetchType() == FetchType.LAZY;
+      isLazy = isLazy(result.one().fetchType());
     } else if (result.many().select().length() > 0 && FetchType.DEFAULT != result.many().fetchType()) {
-      isLazy = result.many().fetchType() == FetchType.LAZY;
+      isLazy = isLazy(result.many().fetchType());
     }
     return isLazy;
   }
 
+  private static boolean isLazy(FetchType fetchType) {
+    return fetchType == FetchType.LAZY || fetchType == FetchType.LAZY_BATCH;
+  }
+
+  private boolean isBatch(Result result) {
+    if (result.one().select().length() > 0) {
+      return isBatch(result.one().fetchType());
+    }
+    return result.many().select().length() > 0 && isBatch(result.many().fetchType());
+  }
+
+  private static boolean isBatch(FetchType fetchType) {
+    return fetchType == FetchType.BATCH || fetchType == FetchType.LAZY_BATCH;
+  }
+
   private boolean hasNestedSelect(Result result) {
     if (result.one().select().length() > 0 && result.many().select().length() > 0) {
       throw new BuilderException("Cannot use both @One and @Many annotations in the same @Result");
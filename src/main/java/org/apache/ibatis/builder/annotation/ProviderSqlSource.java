@@ -20,6 +20,8 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ibatis.annotations.Lang;
 import org.apache.ibatis.builder.BuilderException;
@@ -35,6 +37,11 @@ import org.apache.ibatis.session.Configuration;
  */
 public class ProviderSqlSource implements SqlSource {
 
+  /**
+   * The maximum number of compiled scripts kept per provider method.
+   */
+  private static final int SCRIPT_CACHE_SIZE = 256;
+
   private final Configuration configuration;
   private final Class<?> providerType;
   private final LanguageDriver languageDriver;
@@ -44,6 +51,8 @@ public class ProviderSqlSource implements SqlSource {
   private final Class<?>[] providerMethodParameterTypes;
   private final ProviderContext providerContext;
   private final Integer providerContextIndex;
+  private final Object providerInstance;
+  private final Map<SqlSourceKey, SqlSource> scriptCache = new ConcurrentHashMap<>();
 
   /**
    * This constructor will remove at a future version.
@@ -100,6 +109,7 @@ public class ProviderSqlSource implements SqlSource {
   public ProviderSqlSource(Configuration configuration, Annotation provider, Class<?> mapperType, Method mapperMethod) {
     String candidateProviderMethodName;
     Method candidateProviderMethod = null;
+    Object candidateProviderInstance = null;
     try {
       this.configuration = configuration;
       this.mapperMethod = mapperMethod;
@@ -107,11 +117,15 @@ public class ProviderSqlSource implements SqlSource {
       this.languageDriver = configuration.getLanguageDriver(lang == null ? null : lang.value());
       this.providerType = getProviderType(configuration, provider, mapperMethod);
       candidateProviderMethodName = (String) provider.annotationType().getMethod("method").invoke(provider);
+      if (ThreadSafeProvider.class.isAssignableFrom(this.providerType)) {
+        candidateProviderInstance = this.providerType.getDeclaredConstructor().newInstance();
+      }
 
       if (candidateProviderMethodName.length() == 0
           && ProviderMethodResolver.class.isAssignableFrom(this.providerType)) {
-        candidateProviderMethod = ((ProviderMethodResolver) this.providerType.getDeclaredConstructor().newInstance())
-            .resolveMethod(new ProviderContext(mapperType, mapperMethod, configuration.getDatabaseId()));
+        candidateProviderMethod = ((ProviderMethodResolver) (candidateProviderInstance == null
+            ? this.providerType.getDeclaredConstructor().newInstance() : candidateProviderInstance))
+                .resolveMethod(new ProviderContext(mapperType, mapperMethod, configuration.getDatabaseId()));
       }
       if (candidateProviderMethod == null) {
         candidateProviderMethodName = candidateProviderMethodName.length() == 0 ? "provideSql"
@@ -138,6 +152,7 @@ public class ProviderSqlSource implements SqlSource {
           + "' not found in SqlProvider '" + this.providerType.getName() + "'.");
     }
     this.providerMethod = candidateProviderMethod;
+    this.providerInstance = candidateProviderInstance;
     this.providerMethodArgumentNames = new ParamNameResolver(configuration, this.providerMethod).getNames();
     this.providerMethodParameterTypes = this.providerMethod.getParameterTypes();
 
@@ -201,7 +216,21 @@ public class ProviderSqlSource implements SqlSource {
                 + "' because SqlProvider method arguments for '" + mapperMethod + "' is an invalid combination.");
         }
       Class<?> parameterType = parameterObject == null ? Object.class : parameterObject.getClass();
-      return languageDriver.createSqlSource(configuration, sql, parameterType);
+      if (sql == null || !sql.startsWith("<script>")) {
+        return languageDriver.createSqlSource(configuration, sql, parameterType);
+      }
+      // providers usually return the same few scripts, so avoid parsing them on every call
+      SqlSourceKey key = new SqlSourceKey(sql, parameterType);
+      SqlSource sqlSource = scriptCache.get(key);
+      if (sqlSource == null) {
+        sqlSource = languageDriver.createSqlSource(configuration, sql, parameterType);
+        if (scriptCache.size() >= SCRIPT_CACHE_SIZE) {
+          // the scripts differ on every call (e.g. values are inlined), do not let them grow the cache
+          scriptCache.clear();
+        }
+        scriptCache.put(key, sqlSource);
+      }
+      return sqlSource;
     } catch (BuilderException e) {
       throw e;
     } catch (Exception e) {
@@ -243,7 +272,7 @@ public class ProviderSqlSource implements SqlSource {
   private String invokeProviderMethod(Object... args) throws Exception {
     Object targetObject = null;
     if (!Modifier.isStatic(providerMethod.getModifiers())) {
-      targetObject = providerType.getDeclaredConstructor().newInstance();
+      targetObject = providerInstance != null ? providerInstance : providerType.getDeclaredConstructor().newInstance();
     }
     CharSequence sql = (CharSequence) providerMethod.invoke(targetObject, args);
     return sql != null ? sql.toString() : null;
@@ -267,4 +296,31 @@ public class ProviderSqlSource implements SqlSource {
     return value == void.class ? type : value;
   }
 
+  private static class SqlSourceKey {
+    private final String sql;
+    private final Class<?> parameterType;
+
+    SqlSourceKey(String sql, Class<?> parameterType) {
+      this.sql = sql;
+      this.parameterType = parameterType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof SqlSourceKey)) {
+        return false;
+      }
+      SqlSourceKey other = (SqlSourceKey) o;
+      return sql.equals(other.sql) && parameterType.equals(other.parameterType);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sql, parameterType);
+    }
+  }
+
 }
@@ -0,0 +1,28 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.annotation;
+
+/**
+ * The marker interface that indicates an SQL provider class is thread safe.
+ * <p>
+ * By default, the MyBatis creates a new instance of an SQL provider class on every invocation of a non-static provider
+ * method. If an SQL provider class implements this interface, a single instance is created per provider annotation and
+ * it is shared by all invocations (and threads).
+ *
+ * @since 3.5.14
+ */
+public interface ThreadSafeProvider {
+}
@@ -0,0 +1,105 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.builder.xml;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.scripting.LanguageDriver;
+import org.apache.ibatis.session.Configuration;
+
+/**
+ * A {@link SqlSource} that creates the actual one from the statement node when the statement is obtained from the
+ * configuration (or executed) for the first time.
+ * <p>
+ * With {@link Configuration#isLazyStatementCompilation()}, this is the SQL source returned by
+ * {@link org.apache.ibatis.mapping.MappedStatement#getSqlSource()} for the statements of mapper XML files. Code that
+ * checks the type of the SQL source (e.g. {@code instanceof DynamicSqlSource}) should check the one returned by
+ * {@link #getSqlSource()}. The statement node, and so the DOM of the mapper XML file, is referenced until the SQL is
+ * compiled; {@link Configuration#compileLazyStatements()} compiles all the remaining statements.
+ * </p>
+ *
+ * @since 3.5.14
+ */
+public class LazySqlSource implements SqlSource {
+
+  private final Configuration configuration;
+  private final LanguageDriver languageDriver;
+  private final Class<?> parameterType;
+  private final String statementId;
+  private XNode context;
+  private volatile SqlSource delegate;
+
+  LazySqlSource(Configuration configuration, LanguageDriver languageDriver, XNode context, Class<?> parameterType,
+      String statementId) {
+    this.configuration = configuration;
+    this.languageDriver = languageDriver;
+    this.context = context;
+    this.parameterType = parameterType;
+    this.statementId = statementId;
+  }
+
+  @Override
+  public BoundSql getBoundSql(Object parameterObject) {
+    return getSqlSource().getBoundSql(parameterObject);
+  }
+
+  /**
+   * Returns the SQL source of the statement, which is created on the first call.
+   *
+   * @return the SQL source created by the language driver
+   *
+   * @throws BuilderException
+   *           if the SQL of the statement is invalid
+   */
+  public SqlSource getSqlSource() {
+    SqlSource sqlSource = delegate;
+    if (sqlSource == null) {
+      synchronized (this) {
+        sqlSource = delegate;
+        if (sqlSource == null) {
+          sqlSource = createSqlSource();
+          delegate = sqlSource;
+          // the DOM is no longer needed
+          context = null;
+        }
+      }
+    }
+    return sqlSource;
+  }
+
+  /**
+   * Returns whether the SQL source has been created.
+   *
+   * @return {@code true} if the SQL has been compiled
+   */
+  public boolean isCompiled() {
+    return delegate != null;
+  }
+
+  private SqlSource createSqlSource() {
+    // the statements of a mapper share the document, which is not safe for concurrent reads
+    synchronized (context.getNode().getOwnerDocument()) {
+      try {
+        return languageDriver.createSqlSource(configuration, context, parameterType);
+      } catch (Exception e) {
+        throw new BuilderException("Error creating SqlSource for statement '" + statementId + "'.  Cause: " + e, e);
+      }
+    }
+  }
+
+}
@@ -15,9 +15,14 @@
  */
 package org.apache.ibatis.builder.xml;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import javax.sql.DataSource;
 
@@ -44,6 +49,7 @@ import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.StartupReport;
 import org.apache.ibatis.transaction.TransactionFactory;
 import org.apache.ibatis.type.JdbcType;
 
@@ -107,7 +113,13 @@ public class XMLConfigBuilder extends BaseBuilder {
       throw new BuilderException("Each XMLConfigBuilder can only be used once.");
     }
     parsed = true;
+    long startNanos = System.nanoTime();
     parseConfiguration(parser.evalNode("/configuration"));
+    StartupReport report = configuration.getStartupReport();
+    if (report != null) {
+      // the report is enabled by a setting, so the phase is recorded afterwards
+      report.record(StartupReport.CONFIGURATION, null, System.nanoTime() - startNanos);
+    }
     return configuration;
   }
 
@@ -118,6 +130,7 @@ public class XMLConfigBuilder extends BaseBuilder {
       Properties settings = settingsAsProperties(root.evalNode("settings"));
       loadCustomVfs(settings);
       loadCustomLogImpl(settings);
+      loadStartupReport(settings);
       typeAliasesElement(root.evalNode("typeAliases"));
       pluginElement(root.evalNode("plugins"));
       objectFactoryElement(root.evalNode("objectFactory"));
@@ -169,12 +182,21 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setLogImpl(logImpl);
   }
 
+  private void loadStartupReport(Properties props) {
+    // enabled before the other settings to record the type aliases as well
+    if (booleanValueOf(props.getProperty("startupReport"), false)) {
+      configuration.setStartupReport(new StartupReport());
+    }
+  }
+
   private void typeAliasesElement(XNode parent) {
     if (parent != null) {
       for (XNode child : parent.getChildren()) {
         if ("package".equals(child.getName())) {
           String typeAliasPackage = child.getStringAttribute("name");
-          configuration.getTypeAliasRegistry().registerAliases(typeAliasPackage);
+          try (StartupReport.Step step = configuration.startPhase(StartupReport.TYPE_ALIASES, typeAliasPackage)) {
+            configuration.getTypeAliasRegistry().registerAliases(typeAliasPackage);
+          }
         } else {
           String alias = child.getStringAttribute("alias");
           String type = child.getStringAttribute("type");
@@ -270,6 +292,11 @@ public class XMLConfigBuilder extends BaseBuilder {
     configuration.setDefaultExecutorType(ExecutorType.valueOf(props.getProperty("defaultExecutorType", "SIMPLE")));
     configuration.setDefaultStatementTimeout(integerValueOf(props.getProperty("defaultStatementTimeout"), null));
     configuration.setDefaultFetchSize(integerValueOf(props.getProperty("defaultFetchSize"), null));
+    configuration.setAdaptiveFetchSize(booleanValueOf(props.getProperty("adaptiveFetchSize"), false));
+    configuration.setMinAdaptiveFetchSize(integerValueOf(props.getProperty("minAdaptiveFetchSize"), 10));
+    configuration.setMaxAdaptiveFetchSize(integerValueOf(props.getProperty("maxAdaptiveFetchSize"), 1000));
+    configuration.setBatchFetchSize(integerValueOf(props.getProperty("batchFetchSize"), 100));
+    configuration.setParallelMappingChunkSize(integerValueOf(props.getProperty("parallelMappingChunkSize"), 0));
     configuration.setDefaultResultSetType(resolveResultSetType(props.getProperty("defaultResultSetType")));
     configuration.setMapUnderscoreToCamelCase(booleanValueOf(props.getProperty("mapUnderscoreToCamelCase"), false));
     configuration.setSafeRowBoundsEnabled(booleanValueOf(props.getProperty("safeRowBoundsEnabled"), false));
@@ -290,6 +317,9 @@ public class XMLConfigBuilder extends BaseBuilder {
         booleanValueOf(props.getProperty("argNameBasedConstructorAutoMapping"), false));
     configuration.setDefaultSqlProviderType(resolveClass(props.getProperty("defaultSqlProviderType")));
     configuration.setNullableOnForEach(booleanValueOf(props.getProperty("nullableOnForEach"), false));
+    configuration.setParallelMapperLoading(booleanValueOf(props.getProperty("parallelMapperLoading"), false));
+    configuration.setUseStaxMapperParser(booleanValueOf(props.getProperty("useStaxMapperParser"), false));
+    configuration.setLazyStatementCompilation(booleanValueOf(props.getProperty("lazyStatementCompilation"), false));
   }
 
   private void environmentsElement(XNode context) throws Exception {
@@ -358,7 +388,9 @@ public class XMLConfigBuilder extends BaseBuilder {
       for (XNode child : parent.getChildren()) {
         if ("package".equals(child.getName())) {
           String typeHandlerPackage = child.getStringAttribute("name");
-          typeHandlerRegistry.register(typeHandlerPackage);
+          try (StartupReport.Step step = configuration.startPhase(StartupReport.TYPE_HANDLERS, typeHandlerPackage)) {
+            typeHandlerRegistry.register(typeHandlerPackage);
+          }
         } else {
           String javaTypeName = child.getStringAttribute("javaType");
           String jdbcTypeName = child.getStringAttribute("jdbcType");
@@ -382,7 +414,11 @@ public class XMLConfigBuilder extends BaseBuilder {
 
   private void mapperElement(XNode parent) throws Exception {
     if (parent != null) {
-      for (XNode child : parent.getChildren()) {
+      List<XNode> children = parent.getChildren();
+      List<Callable<XPathParser>> parsers = configuration.isParallelMapperLoading() ? parseMapperDocuments(children)
+          : null;
+      for (int i = 0; i < children.size(); i++) {
+        XNode child = children.get(i);
         if ("package".equals(child.getName())) {
           String mapperPackage = child.getStringAttribute("name");
           configuration.addMappers(mapperPackage);
@@ -392,17 +428,26 @@ public class XMLConfigBuilder extends BaseBuilder {
           String mapperClass = child.getStringAttribute("class");
           if (resource != null && url == null && mapperClass == null) {
             ErrorContext.instance().resource(resource);
-            try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
-              XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, resource,
-                  configuration.getSqlFragments());
-              mapperParser.parse();
+            if (parsers != null) {
+              new XMLMapperBuilder(parsers.get(i).call(), configuration, resource, configuration.getSqlFragments())
+                  .parse();
+            } else {
+              try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+                XMLMapperBuilder mapperParser = new XMLMapperBuilder(createMapperParser(resource, inputStream),
+                    configuration, resource, configuration.getSqlFragments());
+                mapperParser.parse();
+              }
             }
           } else if (resource == null && url != null && mapperClass == null) {
             ErrorContext.instance().resource(url);
-            try (InputStream inputStream = Resources.getUrlAsStream(url)) {
-              XMLMapperBuilder mapperParser = new XMLMapperBuilder(inputStream, configuration, url,
-                  configuration.getSqlFragments());
-              mapperParser.parse();
+            if (parsers != null) {
+              new XMLMapperBuilder(parsers.get(i).call(), configuration, url, configuration.getSqlFragments()).parse();
+            } else {
+              try (InputStream inputStream = Resources.getUrlAsStream(url)) {
+                XMLMapperBuilder mapperParser = new XMLMapperBuilder(createMapperParser(url, inputStream),
+                    configuration, url, configuration.getSqlFragments());
+                mapperParser.parse();
+              }
             }
           } else if (resource == null && url == null && mapperClass != null) {
             Class<?> mapperInterface = Resources.classForName(mapperClass);
@@ -416,6 +461,54 @@ public class XMLConfigBuilder extends BaseBuilder {
     }
   }
 
+  /**
+   * Reads and parses the mapper XML documents in parallel. Registering them to the configuration is not thread safe, so
+   * it is left to the caller that processes the returned parsers in the declared order.
+   * <p>
+   * The documents are read with the context class loader of the calling thread, as they are by the sequential path. A
+   * document that cannot be read or parsed does not fail the others; its error is thrown when the caller gets its
+   * parser, so the errors are reported in the declared order and with the error context of the calling thread.
+   *
+   * @return the parsers at the index of the corresponding child, or {@code null} for other children
+   */
+  private List<Callable<XPathParser>> parseMapperDocuments(List<XNode> children) {
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    return IntStream.range(0, children.size()).parallel().mapToObj(i -> {
+      XNode child = children.get(i);
+      if ("package".equals(child.getName())) {
+        return null;
+      }
+      String resource = child.getStringAttribute("resource");
+      String url = child.getStringAttribute("url");
+      String mapperClass = child.getStringAttribute("class");
+      if (mapperClass != null || (resource == null) == (url == null)) {
+        return null;
+      }
+      Thread thread = Thread.currentThread();
+      ClassLoader previousClassLoader = thread.getContextClassLoader();
+      thread.setContextClassLoader(contextClassLoader);
+      ErrorContext.instance().store().resource(resource != null ? resource : url);
+      try (InputStream inputStream = resource != null ? Resources.getResourceAsStream(resource)
+          : Resources.getUrlAsStream(url)) {
+        XPathParser parser = createMapperParser(resource != null ? resource : url, inputStream);
+        return (Callable<XPathParser>) () -> parser;
+      } catch (IOException | RuntimeException e) {
+        return (Callable<XPathParser>) () -> {
+          throw e;
+        };
+      } finally {
+        ErrorContext.instance().recall();
+        thread.setContextClassLoader(previousClassLoader);
+      }
+    }).collect(Collectors.toList());
+  }
+
+  private XPathParser createMapperParser(String location, InputStream inputStream) {
+    try (StartupReport.Step step = configuration.startPhase(StartupReport.MAPPER_DOCUMENT, location)) {
+      return XMLMapperBuilder.createParser(inputStream, configuration);
+    }
+  }
+
   private boolean isSpecifiedEnvironment(String id) {
     if (environment == null) {
       throw new BuilderException("No environment specified.");
@@ -42,10 +42,12 @@ import org.apache.ibatis.mapping.ParameterMode;
 import org.apache.ibatis.mapping.ResultFlag;
 import org.apache.ibatis.mapping.ResultMap;
 import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.parsing.StaxDocumentBuilder;
 import org.apache.ibatis.parsing.XNode;
 import org.apache.ibatis.parsing.XPathParser;
 import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.StartupReport;
 import org.apache.ibatis.type.JdbcType;
 import org.apache.ibatis.type.TypeHandler;
 
@@ -82,12 +84,10 @@ public class XMLMapperBuilder extends BaseBuilder {
 
   public XMLMapperBuilder(InputStream inputStream, Configuration configuration, String resource,
       Map<String, XNode> sqlFragments) {
-    this(new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver()), configuration,
-        resource, sqlFragments);
+    this(createParser(inputStream, configuration), configuration, resource, sqlFragments);
   }
 
-  private XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource,
-      Map<String, XNode> sqlFragments) {
+  XMLMapperBuilder(XPathParser parser, Configuration configuration, String resource, Map<String, XNode> sqlFragments) {
     super(configuration);
     this.builderAssistant = new MapperBuilderAssistant(configuration, resource);
     this.parser = parser;
@@ -95,16 +95,28 @@ public class XMLMapperBuilder extends BaseBuilder {
     this.resource = resource;
   }
 
+  static XPathParser createParser(InputStream inputStream, Configuration configuration) {
+    if (configuration.isUseStaxMapperParser()) {
+      return new XPathParser(StaxDocumentBuilder.parse(inputStream), false, configuration.getVariables(),
+          new XMLMapperEntityResolver());
+    }
+    return new XPathParser(inputStream, true, configuration.getVariables(), new XMLMapperEntityResolver());
+  }
+
   public void parse() {
     if (!configuration.isResourceLoaded(resource)) {
-      configurationElement(parser.evalNode("/mapper"));
-      configuration.addLoadedResource(resource);
-      bindMapperForNamespace();
+      try (StartupReport.Step step = configuration.startPhase(StartupReport.MAPPER_XML, resource)) {
+        configurationElement(parser.evalNode("/mapper"));
+        configuration.addLoadedResource(resource);
+        bindMapperForNamespace();
+      }
     }
 
-    parsePendingResultMaps();
-    parsePendingCacheRefs();
-    parsePendingStatements();
+    try (StartupReport.Step step = configuration.startPhase(StartupReport.PENDING_ELEMENTS, resource)) {
+      parsePendingResultMaps();
+      parsePendingCacheRefs();
+      parsePendingStatements();
+    }
   }
 
   public XNode getSqlFragment(String refid) {
@@ -151,15 +163,8 @@ public class XMLMapperBuilder extends BaseBuilder {
   private void parsePendingResultMaps() {
     Collection<ResultMapResolver> incompleteResultMaps = configuration.getIncompleteResultMaps();
     synchronized (incompleteResultMaps) {
-      Iterator<ResultMapResolver> iter = incompleteResultMaps.iterator();
-      while (iter.hasNext()) {
-        try {
-          iter.next().resolve();
-          iter.remove();
-        } catch (IncompleteElementException e) {
-          // ResultMap is still missing a resource...
-        }
-      }
+      // the result maps that are still missing a resource are left
+      ResultMapResolver.resolveAll(incompleteResultMaps);
     }
   }
 
@@ -396,13 +401,14 @@ public class XMLMapperBuilder extends BaseBuilder {
     String typeHandler = context.getStringAttribute("typeHandler");
     String resultSet = context.getStringAttribute("resultSet");
     String foreignColumn = context.getStringAttribute("foreignColumn");
-    boolean lazy = "lazy"
-        .equals(context.getStringAttribute("fetchType", configuration.isLazyLoadingEnabled() ? "lazy" : "eager"));
+    String fetchType = context.getStringAttribute("fetchType", configuration.isLazyLoadingEnabled() ? "lazy" : "eager");
+    boolean lazy = "lazy".equals(fetchType) || "lazyBatch".equals(fetchType);
+    boolean batch = "batch".equals(fetchType) || "lazyBatch".equals(fetchType);
     Class<?> javaTypeClass = resolveClass(javaType);
     Class<? extends TypeHandler<?>> typeHandlerClass = resolveClass(typeHandler);
     JdbcType jdbcTypeEnum = resolveJdbcType(jdbcType);
     return builderAssistant.buildResultMapping(resultType, property, column, javaTypeClass, jdbcTypeEnum, nestedSelect,
-        nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy);
+        nestedResultMap, notNullColumn, columnPrefix, typeHandlerClass, flags, resultSet, foreignColumn, lazy, batch);
   }
 
   private String processNestedResultMappings(XNode context, List<ResultMapping> resultMappings,
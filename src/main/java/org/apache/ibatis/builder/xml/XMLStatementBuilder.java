@@ -95,7 +95,13 @@ public class XMLStatementBuilder extends BaseBuilder {
               ? Jdbc3KeyGenerator.INSTANCE : NoKeyGenerator.INSTANCE;
     }
 
-    SqlSource sqlSource = langDriver.createSqlSource(configuration, context, parameterTypeClass);
+    SqlSource sqlSource;
+    if (configuration.isLazyStatementCompilation()) {
+      sqlSource = new LazySqlSource(configuration, langDriver, context, parameterTypeClass,
+          builderAssistant.applyCurrentNamespace(id, false));
+    } else {
+      sqlSource = langDriver.createSqlSource(configuration, context, parameterTypeClass);
+    }
     StatementType statementType = StatementType
         .valueOf(context.getStringAttribute("statementType", StatementType.PREPARED.toString()));
     Integer fetchSize = context.getIntAttribute("fetchSize");
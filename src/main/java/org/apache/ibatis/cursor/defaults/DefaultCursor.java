@@ -48,6 +48,8 @@ public class DefaultCursor<T> implements Cursor<T> {
   private CursorStatus status = CursorStatus.CREATED;
   private int indexWithRowBound = -1;
 
+  private volatile PrefetchingCursor<T> prefetchingCursor;
+
   private enum CursorStatus {
 
     /**
@@ -105,10 +107,19 @@ public class DefaultCursor<T> implements Cursor<T> {
 
   @Override
   public void close() {
+    PrefetchingCursor<T> prefetching = prefetchingCursor;
+    if (prefetching != null && !prefetching.isClosing() && !prefetching.isPrefetchingThread()) {
+      // e.g. the session is closed, the background thread must stop before the result set is closed
+      prefetching.close();
+      return;
+    }
     if (isClosed()) {
       return;
     }
 
+    if (status != CursorStatus.CREATED) {
+      resultSetHandler.recordFetchedRows(rsw);
+    }
     ResultSet rs = rsw.getResultSet();
     try {
       if (rs != null) {
@@ -121,6 +132,14 @@ public class DefaultCursor<T> implements Cursor<T> {
     }
   }
 
+  boolean hasNestedQueries() {
+    return resultSetHandler.hasNestedQueries(resultMap);
+  }
+
+  void setPrefetchingCursor(PrefetchingCursor<T> prefetchingCursor) {
+    this.prefetchingCursor = prefetchingCursor;
+  }
+
   protected T fetchNextUsingRowBound() {
     T result = fetchNextObjectFromDatabase();
     while (objectWrapperResultHandler.fetched && indexWithRowBound < rowBounds.getOffset()) {
@@ -0,0 +1,298 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.ExecutorException;
+
+/**
+ * A cursor that fetches and maps the rows of another cursor on a background thread, so the database fetches overlap
+ * with the work of the consumer. Prefetching is enabled by wrapping the cursor returned by a mapper, before it is
+ * iterated:
+ *
+ * <pre>
+ * try (Cursor&lt;Order&gt; orders = new PrefetchingCursor&lt;&gt;(mapper.selectOrders(), 1000)) {
+ *   orders.forEach(exporter::write);
+ * }
+ * </pre>
+ * <p>
+ * The mapped objects are handed over through a queue of a fixed size. When the queue is full, the background thread
+ * waits until the consumer has taken an object, so no more than {@code prefetchSize} objects are held in memory. The
+ * background thread is started when the first object is requested. An exception thrown while fetching is thrown to the
+ * consumer once it has taken the objects fetched before. Closing the cursor stops the background thread and waits for
+ * it before the underlying cursor is closed. The same happens when the underlying cursor is closed by the session.
+ * </p>
+ * <p>
+ * The rows are mapped on the background thread, so the session must not be used for anything else while the cursor is
+ * being iterated. This implementation is not thread safe, except that it may be closed from another thread.
+ * </p>
+ *
+ * @since 3.5.14
+ */
+public class PrefetchingCursor<T> implements Cursor<T> {
+
+  private static final Object END = new Object();
+  private static final Object NULL = new Object();
+
+  private static final ThreadFactory DEFAULT_THREAD_FACTORY = new ThreadFactory() {
+    private final AtomicInteger threadNumber = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "mybatis-cursor-prefetch-" + threadNumber.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  };
+
+  private final Cursor<T> cursor;
+  private final int offset;
+  private final BlockingQueue<Object> queue;
+  private final ThreadFactory threadFactory;
+  private final CursorIterator cursorIterator = new CursorIterator();
+  private boolean iteratorRetrieved;
+
+  private volatile boolean closed;
+  private volatile Thread producer;
+  private boolean consumed;
+
+  /**
+   * Creates a prefetching cursor whose background thread is a daemon thread.
+   *
+   * @param cursor
+   *          the cursor to fetch from, which must not have been iterated yet
+   * @param prefetchSize
+   *          the maximum number of objects fetched ahead of the consumer
+   */
+  public PrefetchingCursor(Cursor<T> cursor, int prefetchSize) {
+    this(cursor, prefetchSize, null);
+  }
+
+  /**
+   * Creates a prefetching cursor.
+   * <p>
+   * The rows of a cursor returned by MyBatis can only be mapped on the background thread if they do not need the
+   * session: a result map that has nested queries (including lazy loaded ones) is refused.
+   * </p>
+   *
+   * @param cursor
+   *          the cursor to fetch from, which must not have been iterated yet
+   * @param prefetchSize
+   *          the maximum number of objects fetched ahead of the consumer
+   * @param threadFactory
+   *          the factory of the background thread, e.g. one creating virtual threads (can be {@code null})
+   *
+   * @throws ExecutorException
+   *           if the result map of the cursor has nested queries
+   */
+  public PrefetchingCursor(Cursor<T> cursor, int prefetchSize, ThreadFactory threadFactory) {
+    if (cursor instanceof DefaultCursor) {
+      DefaultCursor<T> defaultCursor = (DefaultCursor<T>) cursor;
+      if (defaultCursor.hasNestedQueries()) {
+        throw new ExecutorException("A cursor whose result map has nested queries cannot be prefetched, "
+            + "because the nested queries use the session on the thread that maps the rows.");
+      }
+      defaultCursor.setPrefetchingCursor(this);
+    }
+    this.cursor = cursor;
+    this.offset = cursor.getCurrentIndex() + 1;
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, prefetchSize));
+    this.threadFactory = threadFactory == null ? DEFAULT_THREAD_FACTORY : threadFactory;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return producer != null && !closed && !consumed;
+  }
+
+  @Override
+  public boolean isConsumed() {
+    return consumed;
+  }
+
+  @Override
+  public int getCurrentIndex() {
+    return offset + cursorIterator.iteratorIndex;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    if (iteratorRetrieved) {
+      throw new IllegalStateException("Cannot open more than one iterator on a Cursor");
+    }
+    if (closed || consumed) {
+      throw new IllegalStateException("A Cursor is already closed.");
+    }
+    iteratorRetrieved = true;
+    return cursorIterator;
+  }
+
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    boolean interrupted = false;
+    if (producer != null) {
+      while (producer.isAlive()) {
+        // unblocks the producer if it is waiting for space in the queue
+        queue.clear();
+        try {
+          producer.join(100);
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    queue.clear();
+    // wakes up a consumer waiting on another thread
+    queue.offer(END);
+    try {
+      cursor.close();
+    } catch (Exception e) {
+      // ignore
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  boolean isClosing() {
+    return closed;
+  }
+
+  boolean isPrefetchingThread() {
+    return Thread.currentThread() == producer;
+  }
+
+  private void startProducer() {
+    producer = threadFactory.newThread(this::produce);
+    producer.start();
+  }
+
+  private void produce() {
+    try {
+      for (T object : cursor) {
+        if (!offer(object == null ? NULL : object)) {
+          return;
+        }
+      }
+      offer(END);
+    } catch (Throwable t) {
+      offer(new Failure(t));
+    }
+  }
+
+  /**
+   * Waits until the object can be added to the queue, or the cursor is closed.
+   */
+  private boolean offer(Object object) {
+    try {
+      while (!closed) {
+        if (queue.offer(object, 100, TimeUnit.MILLISECONDS)) {
+          return true;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return false;
+  }
+
+  private static class Failure {
+    private final Throwable cause;
+
+    Failure(Throwable cause) {
+      this.cause = cause;
+    }
+  }
+
+  protected class CursorIterator implements Iterator<T> {
+
+    /**
+     * The next object taken from the queue, not yet returned.
+     */
+    private Object object;
+
+    /**
+     * Index of objects returned using next(), and as such, visible to users.
+     */
+    int iteratorIndex = -1;
+
+    @Override
+    public boolean hasNext() {
+      if (object == null && !closed && !consumed) {
+        object = take();
+      }
+      return object != null && object != END;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Object next = object;
+      object = null;
+      iteratorIndex++;
+      return next == NULL ? null : (T) next;
+    }
+
+    private Object take() {
+      if (producer == null) {
+        startProducer();
+      }
+      Object taken;
+      try {
+        taken = queue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        close();
+        throw new RuntimeException("Interrupted while waiting for the next object of the cursor.", e);
+      }
+      if (taken == END) {
+        consumed = !closed;
+      } else if (taken instanceof Failure) {
+        close();
+        Throwable cause = ((Failure) taken).cause;
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+          throw (Error) cause;
+        }
+        throw new RuntimeException(cause);
+      }
+      return taken;
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException("Cannot remove element from Cursor");
+    }
+  }
+
+}
@@ -35,6 +35,8 @@ public class PoolState {
   protected long accumulatedWaitTime;
   protected long hadToWaitCount;
   protected long badConnectionCount;
+  protected long statementCacheHitCount;
+  protected long statementCacheMissCount;
 
   public PoolState(PooledDataSource dataSource) {
     this.dataSource = dataSource;
@@ -74,6 +76,36 @@ public class PoolState {
     return requestCount == 0 ? 0 : accumulatedCheckoutTime / requestCount;
   }
 
+  /**
+   * Returns the number of prepared statements reused from the statement caches of the connections.
+   *
+   * @return the number of cache hits
+   *
+   * @since 3.5.14
+   */
+  public synchronized long getStatementCacheHitCount() {
+    return statementCacheHitCount;
+  }
+
+  /**
+   * Returns the number of prepared statements prepared by the connections while their statement caches were enabled.
+   *
+   * @return the number of cache misses
+   *
+   * @since 3.5.14
+   */
+  public synchronized long getStatementCacheMissCount() {
+    return statementCacheMissCount;
+  }
+
+  synchronized void statementCacheHit() {
+    statementCacheHitCount++;
+  }
+
+  synchronized void statementCacheMissed() {
+    statementCacheMissCount++;
+  }
+
   public synchronized int getIdleConnectionCount() {
     return idleConnections.size();
   }
@@ -98,6 +130,7 @@ public class PoolState {
     builder.append("\n poolPingEnabled                ").append(dataSource.poolPingEnabled);
     builder.append("\n poolPingQuery                  ").append(dataSource.poolPingQuery);
     builder.append("\n poolPingConnectionsNotUsedFor  ").append(dataSource.poolPingConnectionsNotUsedFor);
+    builder.append("\n poolStatementCacheSize         ").append(dataSource.poolStatementCacheSize);
     builder.append("\n ---STATUS-----------------------------------------------------");
     builder.append("\n activeConnections              ").append(getActiveConnectionCount());
     builder.append("\n idleConnections                ").append(getIdleConnectionCount());
@@ -109,6 +142,8 @@ public class PoolState {
     builder.append("\n hadToWait                      ").append(getHadToWaitCount());
     builder.append("\n averageWaitTime                ").append(getAverageWaitTime());
     builder.append("\n badConnectionCount             ").append(getBadConnectionCount());
+    builder.append("\n statementCacheHits             ").append(getStatementCacheHitCount());
+    builder.append("\n statementCacheMisses           ").append(getStatementCacheMissCount());
     builder.append("\n===============================================================");
     return builder.toString();
   }
@@ -29,6 +29,7 @@ import org.apache.ibatis.reflection.ExceptionUtil;
 class PooledConnection implements InvocationHandler {
 
   private static final String CLOSE = "close";
+  private static final String PREPARE_STATEMENT = "prepareStatement";
   private static final Class<?>[] IFACES = { Connection.class };
 
   private final int hashCode;
@@ -40,6 +41,7 @@ class PooledConnection implements InvocationHandler {
   private long lastUsedTimestamp;
   private int connectionTypeCode;
   private boolean valid;
+  private PooledStatementCache statementCache;
 
   /**
    * Constructor for SimplePooledConnection that uses the Connection and PooledDataSource passed in.
@@ -205,6 +207,36 @@ class PooledConnection implements InvocationHandler {
     return System.currentTimeMillis() - checkoutTimestamp;
   }
 
+  /**
+   * Getter for the cache of the prepared statements of the real connection.
+   *
+   * @return the cache, or {@code null} if no statement has been cached yet
+   */
+  PooledStatementCache getStatementCache() {
+    return statementCache;
+  }
+
+  /**
+   * Setter for the cache of the prepared statements of the real connection, carried over from the pooled connection
+   * that wrapped it before.
+   *
+   * @param statementCache
+   *          the cache
+   */
+  void setStatementCache(PooledStatementCache statementCache) {
+    this.statementCache = statementCache;
+  }
+
+  /**
+   * Closes the cached prepared statements, before the real connection is closed or discarded.
+   */
+  void closeStatementCache() {
+    if (statementCache != null) {
+      statementCache.close();
+      statementCache = null;
+    }
+  }
+
   @Override
   public int hashCode() {
     return hashCode;
@@ -254,6 +286,13 @@ class PooledConnection implements InvocationHandler {
         // issue #579 toString() should never fail
         // throw an SQLException instead of a Runtime
         checkConnection();
+        if (PREPARE_STATEMENT.equals(methodName) && dataSource.getPoolStatementCacheSize() > 0) {
+          if (statementCache == null) {
+            statementCache = new PooledStatementCache(dataSource.getPoolStatementCacheSize(),
+                dataSource.getPoolState());
+          }
+          return statementCache.prepareStatement(this, method, args);
+        }
       }
       return method.invoke(realConnection, args);
     } catch (Throwable t) {
@@ -57,6 +57,7 @@ public class PooledDataSource implements DataSource {
   protected String poolPingQuery = "NO PING QUERY SET";
   protected boolean poolPingEnabled;
   protected int poolPingConnectionsNotUsedFor;
+  protected int poolStatementCacheSize;
 
   private int expectedConnectionTypeCode;
 
@@ -265,6 +266,20 @@ public class PooledDataSource implements DataSource {
     forceCloseAll();
   }
 
+  /**
+   * The maximum number of prepared statements cached by each connection of the pool, which are reused by the sessions
+   * that use the connection afterwards. The cache is disabled when it is {@code 0}, the default.
+   *
+   * @param poolStatementCacheSize
+   *          the number of statements cached by each connection
+   *
+   * @since 3.5.14
+   */
+  public void setPoolStatementCacheSize(int poolStatementCacheSize) {
+    this.poolStatementCacheSize = poolStatementCacheSize;
+    forceCloseAll();
+  }
+
   public String getDriver() {
     return dataSource.getDriver();
   }
@@ -336,6 +351,17 @@ public class PooledDataSource implements DataSource {
     return poolPingConnectionsNotUsedFor;
   }
 
+  /**
+   * Gets the maximum number of prepared statements cached by each connection.
+   *
+   * @return the number of statements cached by each connection
+   *
+   * @since 3.5.14
+   */
+  public int getPoolStatementCacheSize() {
+    return poolStatementCacheSize;
+  }
+
   /**
    * Closes all active and idle connections in the pool.
    */
@@ -348,6 +374,7 @@ public class PooledDataSource implements DataSource {
         try {
           PooledConnection conn = state.activeConnections.remove(i - 1);
           conn.invalidate();
+          conn.closeStatementCache();
 
           Connection realConn = conn.getRealConnection();
           if (!realConn.getAutoCommit()) {
@@ -362,6 +389,7 @@ public class PooledDataSource implements DataSource {
         try {
           PooledConnection conn = state.idleConnections.remove(i - 1);
           conn.invalidate();
+          conn.closeStatementCache();
 
           Connection realConn = conn.getRealConnection();
           if (!realConn.getAutoCommit()) {
@@ -401,6 +429,7 @@ public class PooledDataSource implements DataSource {
             conn.getRealConnection().rollback();
           }
           PooledConnection newConn = new PooledConnection(conn.getRealConnection(), this);
+          newConn.setStatementCache(conn.getStatementCache());
           state.idleConnections.add(newConn);
           newConn.setCreatedTimestamp(conn.getCreatedTimestamp());
           newConn.setLastUsedTimestamp(conn.getLastUsedTimestamp());
@@ -414,6 +443,7 @@ public class PooledDataSource implements DataSource {
           if (!conn.getRealConnection().getAutoCommit()) {
             conn.getRealConnection().rollback();
           }
+          conn.closeStatementCache();
           conn.getRealConnection().close();
           if (log.isDebugEnabled()) {
             log.debug("Closed connection " + conn.getRealHashCode() + ".");
@@ -425,6 +455,7 @@ public class PooledDataSource implements DataSource {
           log.debug("A bad connection (" + conn.getRealHashCode()
               + ") attempted to return to the pool, discarding connection.");
         }
+        conn.closeStatementCache();
         state.badConnectionCount++;
       }
     } finally {
@@ -477,6 +508,7 @@ public class PooledDataSource implements DataSource {
               }
             }
             conn = new PooledConnection(oldestActiveConnection.getRealConnection(), this);
+            conn.setStatementCache(oldestActiveConnection.getStatementCache());
             conn.setCreatedTimestamp(oldestActiveConnection.getCreatedTimestamp());
             conn.setLastUsedTimestamp(oldestActiveConnection.getLastUsedTimestamp());
             oldestActiveConnection.invalidate();
@@ -520,6 +552,7 @@ public class PooledDataSource implements DataSource {
               log.debug("A bad connection (" + conn.getRealHashCode()
                   + ") was returned from the pool, getting another connection.");
             }
+            conn.closeStatementCache();
             state.badConnectionCount++;
             localBadConnectionCount++;
             conn = null;
@@ -588,6 +621,7 @@ public class PooledDataSource implements DataSource {
       } catch (Exception e) {
         log.warn("Execution of ping query '" + poolPingQuery + "' failed: " + e.getMessage());
         try {
+          conn.closeStatementCache();
           conn.getRealConnection().close();
         } catch (Exception e2) {
           // ignore
@@ -0,0 +1,310 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.datasource.pooled;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+
+/**
+ * A bounded cache of the prepared statements of a real connection, which outlives the {@link PooledConnection}s that
+ * wrap the connection while it is checked out, so the statements are reused by the following sessions.
+ * <p>
+ * The statements are keyed by the {@code prepareStatement} method and its arguments, i.e. the SQL, the result set type,
+ * concurrency and holdability, and the generated keys mode or columns. A cached statement is removed from the cache
+ * while it is in use, and put back when it is closed, after its parameters and the statement properties set while it
+ * was in use (fetch size, fetch direction, query timeout and max rows) have been reset. A statement on which other
+ * properties have been set is closed instead. When the cache is full, the least recently used statement is closed.
+ * </p>
+ * <p>
+ * The cache is closed, with all the statements, before the connection is closed.
+ * </p>
+ *
+ * @since 3.5.14
+ */
+class PooledStatementCache {
+
+  private static final Set<String> RESETTABLE_PROPERTIES = new HashSet<>(
+      Arrays.asList("setFetchSize", "setFetchDirection", "setQueryTimeout", "setMaxRows"));
+  private static final Set<String> UNCACHEABLE_PROPERTIES = new HashSet<>(Arrays.asList("setCursorName",
+      "setEscapeProcessing", "setMaxFieldSize", "setLargeMaxRows", "setPoolable", "closeOnCompletion"));
+  private static final Class<?>[] IFACES = { PreparedStatement.class };
+
+  private final int size;
+  private final PoolState state;
+  private final Map<List<Object>, Entry> statements;
+  private boolean closed;
+
+  PooledStatementCache(int size, PoolState state) {
+    this.size = size;
+    this.state = state;
+    this.statements = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Returns a cached statement, or prepares a new one.
+   *
+   * @param connection
+   *          the connection that prepares the statement
+   * @param method
+   *          the {@code prepareStatement} method
+   * @param args
+   *          the arguments of the method
+   *
+   * @return a statement that is put back in the cache when it is closed
+   *
+   * @throws Throwable
+   *           if the statement cannot be prepared
+   */
+  PreparedStatement prepareStatement(PooledConnection connection, Method method, Object[] args) throws Throwable {
+    List<Object> key = createKey(method, args);
+    Entry entry;
+    synchronized (this) {
+      entry = statements.remove(key);
+    }
+    if (entry == null) {
+      state.statementCacheMissed();
+      try {
+        entry = new Entry(key, (PreparedStatement) method.invoke(connection.getRealConnection(), args));
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    } else {
+      state.statementCacheHit();
+    }
+    return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), IFACES,
+        new Lease(entry, connection.getProxyConnection()));
+  }
+
+  /**
+   * Closes the cached statements. The statements in use are closed when they are returned.
+   */
+  void close() {
+    List<Entry> entries;
+    synchronized (this) {
+      closed = true;
+      entries = new ArrayList<>(statements.values());
+      statements.clear();
+    }
+    for (Entry entry : entries) {
+      entry.close();
+    }
+  }
+
+  synchronized int getStatementCount() {
+    return statements.size();
+  }
+
+  private void release(Entry entry) {
+    List<Entry> evicted = Collections.emptyList();
+    synchronized (this) {
+      if (!closed && !statements.containsKey(entry.key)) {
+        statements.put(entry.key, entry);
+        if (statements.size() > size) {
+          evicted = new ArrayList<>();
+          Iterator<Entry> iterator = statements.values().iterator();
+          while (statements.size() > size) {
+            evicted.add(iterator.next());
+            iterator.remove();
+          }
+        }
+        entry = null;
+      }
+    }
+    if (entry != null) {
+      entry.close();
+    }
+    for (Entry evictedEntry : evicted) {
+      evictedEntry.close();
+    }
+  }
+
+  private static List<Object> createKey(Method method, Object[] args) {
+    List<Object> key = new ArrayList<>(args.length + 1);
+    key.add(method);
+    for (Object arg : args) {
+      if (arg instanceof int[]) {
+        key.add(Arrays.toString((int[]) arg));
+      } else if (arg instanceof Object[]) {
+        key.add(Arrays.asList((Object[]) arg));
+      } else {
+        key.add(arg);
+      }
+    }
+    return key;
+  }
+
+  private static class Entry {
+    private final List<Object> key;
+    private final PreparedStatement statement;
+    // the values of the resettable properties before they were first set
+    private final Map<String, Object> defaults = new HashMap<>();
+
+    Entry(List<Object> key, PreparedStatement statement) {
+      this.key = key;
+      this.statement = statement;
+    }
+
+    void saveDefault(String setter) throws SQLException {
+      if (!defaults.containsKey(setter)) {
+        defaults.put(setter, getProperty(setter));
+      }
+    }
+
+    void reset(Set<String> setters) throws SQLException {
+      statement.clearParameters();
+      statement.clearWarnings();
+      for (String setter : setters) {
+        int value = (Integer) defaults.get(setter);
+        switch (setter) {
+          case "setFetchSize":
+            statement.setFetchSize(value);
+            break;
+          case "setFetchDirection":
+            statement.setFetchDirection(value);
+            break;
+          case "setQueryTimeout":
+            statement.setQueryTimeout(value);
+            break;
+          default:
+            statement.setMaxRows(value);
+            break;
+        }
+      }
+    }
+
+    private Object getProperty(String setter) throws SQLException {
+      switch (setter) {
+        case "setFetchSize":
+          return statement.getFetchSize();
+        case "setFetchDirection":
+          return statement.getFetchDirection();
+        case "setQueryTimeout":
+          return statement.getQueryTimeout();
+        default:
+          return statement.getMaxRows();
+      }
+    }
+
+    void close() {
+      try {
+        statement.close();
+      } catch (SQLException e) {
+        // ignore
+      }
+    }
+  }
+
+  /**
+   * A statement checked out of the cache, until it is closed.
+   */
+  private class Lease implements InvocationHandler {
+    private final Entry entry;
+    private final Connection connection;
+    private final Set<String> changedProperties = new HashSet<>();
+    private boolean uncacheable;
+    private boolean batched;
+    private boolean closed;
+
+    Lease(Entry entry, Connection connection) {
+      this.entry = entry;
+      this.connection = connection;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      String methodName = method.getName();
+      if (Object.class.equals(method.getDeclaringClass())) {
+        if ("equals".equals(methodName)) {
+          return proxy == args[0];
+        }
+        if ("hashCode".equals(methodName)) {
+          return System.identityHashCode(proxy);
+        }
+        return "Cached " + entry.statement;
+      }
+      switch (methodName) {
+        case "close":
+          close();
+          return null;
+        case "isClosed":
+          return closed;
+        case "getConnection":
+          checkOpen();
+          return connection;
+        default:
+          break;
+      }
+      checkOpen();
+      if (RESETTABLE_PROPERTIES.contains(methodName)) {
+        entry.saveDefault(methodName);
+        changedProperties.add(methodName);
+      } else if (UNCACHEABLE_PROPERTIES.contains(methodName)) {
+        uncacheable = true;
+      } else if ("addBatch".equals(methodName)) {
+        batched = true;
+      }
+      try {
+        return method.invoke(entry.statement, args);
+      } catch (Throwable t) {
+        throw ExceptionUtil.unwrapThrowable(t);
+      }
+    }
+
+    private void checkOpen() throws SQLException {
+      if (closed) {
+        throw new SQLException("Statement is closed.");
+      }
+    }
+
+    private void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      if (uncacheable) {
+        entry.close();
+        return;
+      }
+      try {
+        if (batched) {
+          entry.statement.clearBatch();
+        }
+        entry.reset(changedProperties);
+      } catch (SQLException e) {
+        entry.close();
+        return;
+      }
+      release(entry);
+    }
+  }
+
+}
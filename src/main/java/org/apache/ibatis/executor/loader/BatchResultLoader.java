@@ -0,0 +1,306 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.loader;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.ResultExtractor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.reflection.MetaClass;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.ParamNameResolver;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Loads a nested select mapped with {@code fetchType="batch"} for many result objects at once.
+ * <p>
+ * The keys of the result objects are collected and the nested select is run once per chunk of
+ * {@link Configuration#getBatchFetchSize()} distinct keys, with a list of the keys as the parameter (available as
+ * {@code list} or {@code collection}). The returned rows are then assigned to the result objects whose key matches
+ * the key properties of the row, which are the properties mapped to the {@code foreignColumn} of the mapping, or the
+ * id properties of the nested result map if no foreign column is specified.
+ * </p>
+ * <p>
+ * With {@code fetchType="lazyBatch"}, each result object gets a lazy loader from {@link #newLazyLoader(MetaObject,
+ * Object)}. When the first of them is triggered, the property is loaded for all the result objects of the batch that
+ * have not been loaded yet (i.e. the siblings from the same query), and the other lazy loaders return their value
+ * without running the nested select again.
+ * </p>
+ *
+ * @since 3.5.14
+ */
+public class BatchResultLoader {
+
+  private final Configuration configuration;
+  private final Executor executor;
+  private final MappedStatement mappedStatement;
+  private final ResultMapping resultMapping;
+  private final ResultExtractor resultExtractor;
+  private final long creatorThreadId;
+
+  private final Map<Object, Object> parameterObjects = new LinkedHashMap<>();
+  private final List<Target> targets = new ArrayList<>();
+
+  private List<String> keyProperties;
+
+  public BatchResultLoader(Configuration configuration, Executor executor, MappedStatement mappedStatement,
+      ResultMapping resultMapping) {
+    this.configuration = configuration;
+    this.executor = executor;
+    this.mappedStatement = mappedStatement;
+    this.resultMapping = resultMapping;
+    this.resultExtractor = new ResultExtractor(configuration, configuration.getObjectFactory());
+    this.creatorThreadId = Thread.currentThread().getId();
+  }
+
+  /**
+   * Adds a result object whose property is set when the batch is loaded.
+   *
+   * @param metaResultObject
+   *          the result object
+   * @param parameterObject
+   *          the parameter the nested select would be called with for this result object
+   */
+  public void addTarget(MetaObject metaResultObject, Object parameterObject) {
+    addPendingTarget(metaResultObject, parameterObject);
+  }
+
+  /**
+   * Adds a result object whose property is loaded lazily, along with the other pending result objects of this batch.
+   *
+   * @param metaResultObject
+   *          the result object
+   * @param parameterObject
+   *          the parameter the nested select would be called with for this result object
+   *
+   * @return the loader to register in the {@link ResultLoaderMap} of the result object
+   */
+  public ResultLoader newLazyLoader(MetaObject metaResultObject, Object parameterObject) {
+    return new LazyResultLoader(this, addPendingTarget(metaResultObject, parameterObject), parameterObject);
+  }
+
+  private synchronized Target addPendingTarget(MetaObject metaResultObject, Object parameterObject) {
+    Object key = parentKey(parameterObject);
+    parameterObjects.putIfAbsent(key, parameterObject);
+    Target target = new Target(metaResultObject, key);
+    targets.add(target);
+    return target;
+  }
+
+  public synchronized boolean isEmpty() {
+    return targets.isEmpty();
+  }
+
+  /**
+   * Runs the nested select for the collected keys and sets the property of the result objects.
+   *
+   * @throws SQLException
+   *           if the nested select fails
+   */
+  public synchronized void load() throws SQLException {
+    final String property = resultMapping.getProperty();
+    for (Target target : loadPending()) {
+      if (target.value != null || configuration.isCallSettersOnNulls() && !target.metaObject.getSetterType(property)
+          .isPrimitive()) {
+        target.metaObject.setValue(property, target.value);
+      }
+      target.value = null;
+    }
+  }
+
+  /**
+   * Runs the nested select for the pending keys and assigns the values to the pending targets.
+   *
+   * @return the targets that have been loaded
+   */
+  private List<Target> loadPending() throws SQLException {
+    if (targets.isEmpty()) {
+      return Collections.emptyList();
+    }
+    Map<Object, List<Object>> rowsByKey = new HashMap<>();
+    List<Object> keys = new ArrayList<>(parameterObjects.values());
+    int chunkSize = Math.max(1, configuration.getBatchFetchSize());
+    for (int from = 0; from < keys.size(); from += chunkSize) {
+      List<Object> chunk = new ArrayList<>(keys.subList(from, Math.min(from + chunkSize, keys.size())));
+      for (Object row : selectList(chunk)) {
+        rowsByKey.computeIfAbsent(childKey(row), k -> new ArrayList<>()).add(row);
+      }
+    }
+    final Class<?> targetType = resultMapping.getJavaType();
+    List<Target> loaded = new ArrayList<>(targets);
+    for (Target target : loaded) {
+      List<Object> rows = rowsByKey.get(target.key);
+      target.value = resultExtractor.extractObjectFromList(rows == null ? new ArrayList<>() : new ArrayList<>(rows),
+          targetType);
+      target.loaded = true;
+    }
+    parameterObjects.clear();
+    targets.clear();
+    return loaded;
+  }
+
+  private List<Object> selectList(List<Object> keys) throws SQLException {
+    Object parameterObject = ParamNameResolver.wrapToMapIfCollection(keys, null);
+    BoundSql boundSql = mappedStatement.getBoundSql(parameterObject);
+    CacheKey cacheKey = executor.createCacheKey(mappedStatement, parameterObject, RowBounds.DEFAULT, boundSql);
+    @SuppressWarnings("unchecked")
+    List<Object> rows = (List<Object>) new ResultLoader(configuration, executor, mappedStatement, parameterObject,
+        List.class, cacheKey, boundSql, creatorThreadId).loadResult();
+    return rows;
+  }
+
+  private Object parentKey(Object parameterObject) {
+    if (!resultMapping.isCompositeResult()) {
+      return normalize(parameterObject);
+    }
+    MetaObject metaParameter = configuration.newMetaObject(parameterObject);
+    List<Object> key = new ArrayList<>();
+    for (ResultMapping composite : resultMapping.getComposites()) {
+      key.add(normalize(metaParameter.getValue(composite.getProperty())));
+    }
+    return key;
+  }
+
+  private Object childKey(Object row) {
+    if (keyProperties == null) {
+      keyProperties = resolveKeyProperties(row.getClass());
+    }
+    MetaObject metaRow = configuration.newMetaObject(row);
+    if (!resultMapping.isCompositeResult()) {
+      return normalize(metaRow.getValue(keyProperties.get(0)));
+    }
+    List<Object> key = new ArrayList<>();
+    for (String keyProperty : keyProperties) {
+      key.add(normalize(metaRow.getValue(keyProperty)));
+    }
+    return key;
+  }
+
+  private List<String> resolveKeyProperties(Class<?> rowType) {
+    int keyCount = resultMapping.isCompositeResult() ? resultMapping.getComposites().size() : 1;
+    ResultMap resultMap = mappedStatement.getResultMaps().get(0);
+    List<String> properties = new ArrayList<>();
+    String foreignColumn = resultMapping.getForeignColumn();
+    if (foreignColumn == null) {
+      if (resultMap.getIdResultMappings().size() == keyCount) {
+        for (ResultMapping idMapping : resultMap.getIdResultMappings()) {
+          if (idMapping.getProperty() != null) {
+            properties.add(idMapping.getProperty());
+          }
+        }
+      }
+    } else {
+      for (String column : foreignColumn.split(",")) {
+        String keyProperty = findKeyProperty(resultMap, rowType, column.trim());
+        if (keyProperty != null) {
+          properties.add(keyProperty);
+        }
+      }
+    }
+    if (properties.size() != keyCount) {
+      throw new ExecutorException("Could not determine the key properties of the rows returned by '"
+          + mappedStatement.getId() + "' for the batched property '" + resultMapping.getProperty()
+          + "'. Specify a foreignColumn with one column per key column.");
+    }
+    return properties;
+  }
+
+  private String findKeyProperty(ResultMap resultMap, Class<?> rowType, String column) {
+    for (ResultMapping mapping : resultMap.getPropertyResultMappings()) {
+      if (column.equalsIgnoreCase(mapping.getColumn())) {
+        return mapping.getProperty();
+      }
+    }
+    if (Map.class.isAssignableFrom(rowType)) {
+      return column;
+    }
+    return MetaClass.forClass(rowType, configuration.getReflectorFactory()).findProperty(column,
+        configuration.isMapUnderscoreToCamelCase());
+  }
+
+  /**
+   * Numbers are compared by value, as the key read from the parent row and the key property of the nested row can
+   * differ in type (e.g. {@code Integer} and {@code Long}).
+   */
+  private static Object normalize(Object value) {
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+        || value instanceof BigInteger) {
+      return new BigDecimal(value.toString()).stripTrailingZeros();
+    }
+    if (value instanceof Float || value instanceof Double) {
+      return BigDecimal.valueOf(((Number) value).doubleValue()).stripTrailingZeros();
+    }
+    if (value instanceof BigDecimal) {
+      return ((BigDecimal) value).stripTrailingZeros();
+    }
+    return value;
+  }
+
+  private static class Target {
+    private final MetaObject metaObject;
+    private final Object key;
+    private boolean loaded;
+    private Object value;
+
+    Target(MetaObject metaObject, Object key) {
+      this.metaObject = metaObject;
+      this.key = key;
+    }
+  }
+
+  private static class LazyResultLoader extends ResultLoader {
+    private final BatchResultLoader batch;
+    private final Target target;
+
+    LazyResultLoader(BatchResultLoader batch, Target target, Object parameterObject) {
+      // the parameter is used only if the result object is deserialized and loads the property by itself
+      super(batch.configuration, batch.executor, batch.mappedStatement,
+          ParamNameResolver.wrapToMapIfCollection(Collections.singletonList(parameterObject), null),
+          batch.resultMapping.getJavaType(), null, null, batch.creatorThreadId);
+      this.batch = batch;
+      this.target = target;
+    }
+
+    @Override
+    public Object loadResult() throws SQLException {
+      synchronized (batch) {
+        if (!target.loaded) {
+          batch.loadPending();
+        }
+        resultObject = target.value;
+        target.value = null;
+      }
+      loaded = true;
+      return resultObject;
+    }
+  }
+
+}
@@ -55,6 +55,15 @@ public class ResultLoader {
 
   public ResultLoader(Configuration config, Executor executor, MappedStatement mappedStatement, Object parameterObject,
       Class<?> targetType, CacheKey cacheKey, BoundSql boundSql) {
+    this(config, executor, mappedStatement, parameterObject, targetType, cacheKey, boundSql,
+        Thread.currentThread().getId());
+  }
+
+  /**
+   * For loaders that are created on another thread than the executor, which is then used only on the creator thread.
+   */
+  ResultLoader(Configuration config, Executor executor, MappedStatement mappedStatement, Object parameterObject,
+      Class<?> targetType, CacheKey cacheKey, BoundSql boundSql, long creatorThreadId) {
     this.configuration = config;
     this.executor = executor;
     this.mappedStatement = mappedStatement;
@@ -64,7 +73,7 @@ public class ResultLoader {
     this.cacheKey = cacheKey;
     this.boundSql = boundSql;
     this.resultExtractor = new ResultExtractor(configuration, objectFactory);
-    this.creatorThreadId = Thread.currentThread().getId();
+    this.creatorThreadId = creatorThreadId;
   }
 
   public Object loadResult() throws SQLException {
@@ -0,0 +1,68 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.session.ResultChunkHandler;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * Collects the mapped objects into chunks of a fixed size and passes each full chunk to a {@link ResultChunkHandler}.
+ * The same list is reused for all the chunks, so the objects of a chunk can be garbage collected once it has been
+ * handled. {@link #flush()} must be called after the query to handle the last chunk.
+ *
+ * @since 3.5.14
+ */
+public class ChunkedResultHandler<T> implements ResultHandler<T> {
+
+  private final int chunkSize;
+  private final ResultChunkHandler<T> chunkHandler;
+  private final List<T> chunk;
+
+  public ChunkedResultHandler(int chunkSize, ResultChunkHandler<T> chunkHandler) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("The chunk size must be greater than 0, but was " + chunkSize + ".");
+    }
+    this.chunkSize = chunkSize;
+    this.chunkHandler = chunkHandler;
+    this.chunk = new ArrayList<>(chunkSize);
+  }
+
+  @Override
+  public void handleResult(ResultContext<? extends T> resultContext) {
+    chunk.add(resultContext.getResultObject());
+    if (chunk.size() >= chunkSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Passes the objects collected so far to the chunk handler, if any.
+   */
+  public void flush() {
+    if (!chunk.isEmpty()) {
+      try {
+        chunkHandler.handleChunk(chunk);
+      } finally {
+        chunk.clear();
+      }
+    }
+  }
+
+}
@@ -0,0 +1,674 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.result;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.resultset.ResultSetWrapper;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * The rows of a result set stored by column, for queries returning many rows of mostly numeric values.
+ * <p>
+ * A statement whose result type is {@code ColumnarResult} returns a single object holding all the rows. The columns of
+ * integer types are stored as {@code int[]} or {@code long[]}, the columns of floating point types as
+ * {@code double[]} and the columns of character types as codes into a dictionary of their distinct values (or as a
+ * {@code String[]} if most of their values are distinct). The {@code DECIMAL} and {@code NUMERIC} columns of at most 18
+ * digits are stored as {@code int[]} or {@code long[]} if their scale is {@code 0}, and as unscaled {@code long[]}
+ * values otherwise. The values are read by column index, without creating an object per row. Any other column,
+ * including a decimal column of more digits or of unknown precision, is read by the type handler of its Java type into
+ * an {@code Object[]}. The {@code null} values of a column are recorded in a {@link BitSet}, their primitive value is
+ * {@code 0}.
+ * </p>
+ *
+ * <pre>
+ * &lt;select id="selectReport" resultType="org.apache.ibatis.executor.result.ColumnarResult"&gt;
+ *   SELECT DAY, STORE_ID, AMOUNT FROM SALES
+ * &lt;/select&gt;
+ * </pre>
+ *
+ * @since 3.5.14
+ */
+public class ColumnarResult {
+
+  private static final int INITIAL_CAPACITY = 256;
+  private static final int MAX_INT_PRECISION = 9;
+  private static final int MAX_LONG_PRECISION = 18;
+
+  private final List<Column> columns;
+  private final Map<String, Column> columnsByName = new HashMap<>();
+  private final int rowCount;
+
+  private ColumnarResult(List<Column> columns, int rowCount) {
+    this.columns = Collections.unmodifiableList(columns);
+    this.rowCount = rowCount;
+    for (Column column : columns) {
+      columnsByName.putIfAbsent(column.getName().toUpperCase(Locale.ENGLISH), column);
+    }
+  }
+
+  /**
+   * Reads the remaining rows of a result set.
+   *
+   * @param rsw
+   *          the result set
+   * @param limit
+   *          the maximum number of rows to read
+   *
+   * @return the columnar result
+   *
+   * @throws SQLException
+   *           if the result set cannot be read
+   */
+  public static ColumnarResult read(ResultSetWrapper rsw, int limit) throws SQLException {
+    List<String> columnNames = rsw.getColumnNames();
+    List<Column> columns = new ArrayList<>(columnNames.size());
+    ResultSet rs = rsw.getResultSet();
+    ResultSetMetaData metaData = rs.getMetaData();
+    for (int i = 0; i < columnNames.size(); i++) {
+      columns.add(newColumn(rsw, metaData, i + 1, columnNames.get(i)));
+    }
+    int rowCount = 0;
+    while (rowCount < limit && !rs.isClosed() && rs.next()) {
+      for (int i = 0; i < columns.size(); i++) {
+        columns.get(i).read(rs, i + 1, rowCount);
+      }
+      rowCount++;
+    }
+    for (Column column : columns) {
+      column.complete(rowCount);
+    }
+    return new ColumnarResult(columns, rowCount);
+  }
+
+  private static Column newColumn(ResultSetWrapper rsw, ResultSetMetaData metaData, int columnIndex,
+      String columnName) throws SQLException {
+    JdbcType jdbcType = rsw.getJdbcType(columnName);
+    if (jdbcType != null) {
+      switch (jdbcType) {
+        case TINYINT:
+        case SMALLINT:
+        case INTEGER:
+          return new IntColumn(columnName);
+        case BIGINT:
+          return new LongColumn(columnName);
+        case REAL:
+        case FLOAT:
+        case DOUBLE:
+          return new DoubleColumn(columnName);
+        case DECIMAL:
+        case NUMERIC:
+          // drivers report a precision of 0, or a negative scale, for decimals without a declared precision
+          int precision = metaData.getPrecision(columnIndex);
+          int scale = metaData.getScale(columnIndex);
+          if (precision <= 0 || precision > MAX_LONG_PRECISION || scale < 0) {
+            break;
+          }
+          if (scale > 0) {
+            return new DecimalColumn(columnName, scale);
+          }
+          return precision <= MAX_INT_PRECISION ? new IntColumn(columnName) : new LongColumn(columnName);
+        case CHAR:
+        case VARCHAR:
+        case LONGVARCHAR:
+        case NCHAR:
+        case NVARCHAR:
+        case LONGNVARCHAR:
+          return new StringColumn(columnName);
+        default:
+          break;
+      }
+    }
+    return new ObjectColumn(columnName, rsw.getTypeHandler(Object.class, columnName));
+  }
+
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  public int getColumnCount() {
+    return columns.size();
+  }
+
+  public List<Column> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Returns a column by its position.
+   *
+   * @param index
+   *          the position of the column in the result set, starting with 0
+   *
+   * @return the column
+   */
+  public Column getColumn(int index) {
+    return columns.get(index);
+  }
+
+  /**
+   * Returns a column by its label (case insensitive).
+   *
+   * @param name
+   *          the column label
+   *
+   * @return the column
+   */
+  public Column getColumn(String name) {
+    Column column = columnsByName.get(name.toUpperCase(Locale.ENGLISH));
+    if (column == null) {
+      throw new ExecutorException("The result has no column named '" + name + "'.");
+    }
+    return column;
+  }
+
+  public IntColumn getIntColumn(String name) {
+    return getColumn(name, IntColumn.class);
+  }
+
+  public LongColumn getLongColumn(String name) {
+    return getColumn(name, LongColumn.class);
+  }
+
+  public DoubleColumn getDoubleColumn(String name) {
+    return getColumn(name, DoubleColumn.class);
+  }
+
+  public DecimalColumn getDecimalColumn(String name) {
+    return getColumn(name, DecimalColumn.class);
+  }
+
+  public StringColumn getStringColumn(String name) {
+    return getColumn(name, StringColumn.class);
+  }
+
+  public ObjectColumn getObjectColumn(String name) {
+    return getColumn(name, ObjectColumn.class);
+  }
+
+  private <C extends Column> C getColumn(String name, Class<C> type) {
+    Column column = getColumn(name);
+    if (!type.isInstance(column)) {
+      throw new ExecutorException("The column '" + name + "' is stored as " + column.getClass().getSimpleName()
+          + ", not as " + type.getSimpleName() + ".");
+    }
+    return type.cast(column);
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnarResult[rows=" + rowCount + ", columns=" + columns + "]";
+  }
+
+  /**
+   * The values of a column.
+   */
+  public abstract static class Column {
+    private final String name;
+    private BitSet nulls;
+
+    Column(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public boolean isNull(int row) {
+      return nulls != null && nulls.get(row);
+    }
+
+    /**
+     * Returns the rows whose value is {@code null}.
+     *
+     * @return the rows, as a copy
+     */
+    public BitSet getNulls() {
+      return nulls == null ? new BitSet() : (BitSet) nulls.clone();
+    }
+
+    /**
+     * Returns the value of a row as an object, e.g. {@code Long} for a {@link LongColumn}.
+     *
+     * @param row
+     *          the row, starting with 0
+     *
+     * @return the value, {@code null} if the value of the row is {@code null}
+     */
+    public abstract Object getObject(int row);
+
+    abstract void read(ResultSet rs, int columnIndex, int row) throws SQLException;
+
+    abstract void complete(int rowCount);
+
+    void setNull(int row) {
+      if (nulls == null) {
+        nulls = new BitSet();
+      }
+      nulls.set(row);
+    }
+
+    static int grow(int capacity, int row) {
+      return row < capacity ? capacity : Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1));
+    }
+
+    @Override
+    public String toString() {
+      return name + ":" + getClass().getSimpleName();
+    }
+  }
+
+  public static final class IntColumn extends Column {
+    private int[] values = new int[0];
+
+    IntColumn(String name) {
+      super(name);
+    }
+
+    public int getInt(int row) {
+      return values[row];
+    }
+
+    /**
+     * Returns the values of all the rows.
+     *
+     * @return the values, which must not be modified
+     */
+    public int[] getValues() {
+      return values;
+    }
+
+    @Override
+    public Object getObject(int row) {
+      return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      int capacity = grow(values.length, row);
+      if (capacity != values.length) {
+        values = Arrays.copyOf(values, capacity);
+      }
+      values[row] = rs.getInt(columnIndex);
+      if (rs.wasNull()) {
+        setNull(row);
+      }
+    }
+
+    @Override
+    void complete(int rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+  }
+
+  public static final class LongColumn extends Column {
+    private long[] values = new long[0];
+
+    LongColumn(String name) {
+      super(name);
+    }
+
+    public long getLong(int row) {
+      return values[row];
+    }
+
+    /**
+     * Returns the values of all the rows.
+     *
+     * @return the values, which must not be modified
+     */
+    public long[] getValues() {
+      return values;
+    }
+
+    @Override
+    public Object getObject(int row) {
+      return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      int capacity = grow(values.length, row);
+      if (capacity != values.length) {
+        values = Arrays.copyOf(values, capacity);
+      }
+      values[row] = rs.getLong(columnIndex);
+      if (rs.wasNull()) {
+        setNull(row);
+      }
+    }
+
+    @Override
+    void complete(int rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+  }
+
+  public static final class DoubleColumn extends Column {
+    private double[] values = new double[0];
+
+    DoubleColumn(String name) {
+      super(name);
+    }
+
+    public double getDouble(int row) {
+      return values[row];
+    }
+
+    /**
+     * Returns the values of all the rows.
+     *
+     * @return the values, which must not be modified
+     */
+    public double[] getValues() {
+      return values;
+    }
+
+    @Override
+    public Object getObject(int row) {
+      return isNull(row) ? null : values[row];
+    }
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      int capacity = grow(values.length, row);
+      if (capacity != values.length) {
+        values = Arrays.copyOf(values, capacity);
+      }
+      values[row] = rs.getDouble(columnIndex);
+      if (rs.wasNull()) {
+        setNull(row);
+      }
+    }
+
+    @Override
+    void complete(int rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+  }
+
+  /**
+   * A column of decimal numbers of at most 18 digits, stored as unscaled values with the scale of the column, e.g.
+   * {@code 1250} for {@code 12.50} in a column of scale {@code 2}.
+   */
+  public static final class DecimalColumn extends Column {
+    private final int scale;
+    private long[] unscaledValues = new long[0];
+
+    DecimalColumn(String name, int scale) {
+      super(name);
+      this.scale = scale;
+    }
+
+    public int getScale() {
+      return scale;
+    }
+
+    public long getUnscaledValue(int row) {
+      return unscaledValues[row];
+    }
+
+    /**
+     * Returns the unscaled values of all the rows.
+     *
+     * @return the values, which must not be modified
+     */
+    public long[] getUnscaledValues() {
+      return unscaledValues;
+    }
+
+    public BigDecimal getBigDecimal(int row) {
+      return isNull(row) ? null : BigDecimal.valueOf(unscaledValues[row], scale);
+    }
+
+    @Override
+    public Object getObject(int row) {
+      return getBigDecimal(row);
+    }
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      int capacity = grow(unscaledValues.length, row);
+      if (capacity != unscaledValues.length) {
+        unscaledValues = Arrays.copyOf(unscaledValues, capacity);
+      }
+      BigDecimal value = rs.getBigDecimal(columnIndex);
+      if (value == null) {
+        setNull(row);
+        return;
+      }
+      try {
+        unscaledValues[row] = value.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+      } catch (ArithmeticException e) {
+        throw new ExecutorException("The value " + value + " of the column '" + getName()
+            + "' does not fit its declared precision and scale.", e);
+      }
+    }
+
+    @Override
+    void complete(int rowCount) {
+      unscaledValues = Arrays.copyOf(unscaledValues, rowCount);
+    }
+  }
+
+  /**
+   * A column of strings, stored as codes into a dictionary of the distinct values. The code of a {@code null} value is
+   * {@code -1}.
+   * <p>
+   * Once more than half of the rows read (and more than 256 rows) have distinct values, e.g. for a unique key or free
+   * text, the dictionary would cost more than it saves, so the column is stored as a plain {@code String[]} instead
+   * and has no codes (see {@link #isDictionaryEncoded()}).
+   * </p>
+   */
+  public static final class StringColumn extends Column {
+    private int[] codes = new int[0];
+    private List<String> dictionary = new ArrayList<>();
+    private Map<String, Integer> dictionaryIndex = new HashMap<>();
+    private String[] values;
+
+    StringColumn(String name) {
+      super(name);
+    }
+
+    public String getString(int row) {
+      if (values != null) {
+        return values[row];
+      }
+      int code = codes[row];
+      return code < 0 ? null : dictionary.get(code);
+    }
+
+    /**
+     * Returns whether the column is stored as codes into a dictionary of its distinct values.
+     *
+     * @return {@code false} if the column is stored as a plain array of strings
+     */
+    public boolean isDictionaryEncoded() {
+      return values == null;
+    }
+
+    public int getCode(int row) {
+      return getCodes()[row];
+    }
+
+    /**
+     * Returns the codes of all the rows.
+     *
+     * @return the codes, which must not be modified
+     *
+     * @throws ExecutorException
+     *           if the column is not dictionary encoded
+     */
+    public int[] getCodes() {
+      checkDictionaryEncoded();
+      return codes;
+    }
+
+    /**
+     * Returns the distinct values, in the order they have been read.
+     *
+     * @return the values, the index of a value is its code
+     *
+     * @throws ExecutorException
+     *           if the column is not dictionary encoded
+     */
+    public List<String> getDictionary() {
+      checkDictionaryEncoded();
+      return dictionary;
+    }
+
+    /**
+     * Returns the values of all the rows.
+     *
+     * @return the values, which must not be modified; they are decoded into a new array if the column is dictionary
+     *         encoded
+     */
+    public String[] getValues() {
+      if (values != null) {
+        return values;
+      }
+      String[] decoded = new String[codes.length];
+      for (int row = 0; row < codes.length; row++) {
+        decoded[row] = getString(row);
+      }
+      return decoded;
+    }
+
+    @Override
+    public Object getObject(int row) {
+      return getString(row);
+    }
+
+    private void checkDictionaryEncoded() {
+      if (values != null) {
+        throw new ExecutorException("The column '" + getName()
+            + "' has too many distinct values to be dictionary encoded, use getString or getValues instead.");
+      }
+    }
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      String value = rs.getString(columnIndex);
+      if (value == null) {
+        setNull(row);
+      }
+      if (values != null) {
+        int capacity = grow(values.length, row);
+        if (capacity != values.length) {
+          values = Arrays.copyOf(values, capacity);
+        }
+        values[row] = value;
+        return;
+      }
+      int capacity = grow(codes.length, row);
+      if (capacity != codes.length) {
+        codes = Arrays.copyOf(codes, capacity);
+      }
+      if (value == null) {
+        codes[row] = -1;
+        return;
+      }
+      Integer code = dictionaryIndex.get(value);
+      if (code == null) {
+        code = dictionary.size();
+        dictionary.add(value);
+        dictionaryIndex.put(value, code);
+      }
+      codes[row] = code;
+      if (dictionary.size() > INITIAL_CAPACITY && dictionary.size() > (row + 1) / 2) {
+        values = new String[codes.length];
+        for (int i = 0; i <= row; i++) {
+          values[i] = codes[i] < 0 ? null : dictionary.get(codes[i]);
+        }
+        codes = null;
+        dictionary = null;
+        dictionaryIndex = null;
+      }
+    }
+
+    @Override
+    void complete(int rowCount) {
+      if (values != null) {
+        values = Arrays.copyOf(values, rowCount);
+        return;
+      }
+      codes = Arrays.copyOf(codes, rowCount);
+      dictionary = Collections.unmodifiableList(dictionary);
+      dictionaryIndex = null;
+    }
+  }
+
+  /**
+   * A column of any other type, read by the type handler of its Java type.
+   */
+  public static final class ObjectColumn extends Column {
+    private final TypeHandler<?> typeHandler;
+    private Object[] values = new Object[0];
+
+    ObjectColumn(String name, TypeHandler<?> typeHandler) {
+      super(name);
+      this.typeHandler = typeHandler;
+    }
+
+    /**
+     * Returns the values of all the rows.
+     *
+     * @return the values, which must not be modified
+     */
+    public Object[] getValues() {
+      return values;
+    }
+
+    @Override
+    public Object getObject(int row) {
+      return values[row];
+    }
+
+    @Override
+    void read(ResultSet rs, int columnIndex, int row) throws SQLException {
+      int capacity = grow(values.length, row);
+      if (capacity != values.length) {
+        values = Arrays.copyOf(values, capacity);
+      }
+      Object value = typeHandler.getResult(rs, columnIndex);
+      values[row] = value;
+      if (value == null) {
+        setNull(row);
+      }
+    }
+
+    @Override
+    void complete(int rowCount) {
+      values = Arrays.copyOf(values, rowCount);
+    }
+  }
+
+}
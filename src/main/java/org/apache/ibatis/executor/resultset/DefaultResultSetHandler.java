@@ -24,13 +24,17 @@ import java.sql.Statement;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.ibatis.annotations.AutomapConstructor;
 import org.apache.ibatis.annotations.Param;
@@ -41,9 +45,11 @@ import org.apache.ibatis.cursor.defaults.DefaultCursor;
 import org.apache.ibatis.executor.ErrorContext;
 import org.apache.ibatis.executor.Executor;
 import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.loader.BatchResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoader;
 import org.apache.ibatis.executor.loader.ResultLoaderMap;
 import org.apache.ibatis.executor.parameter.ParameterHandler;
+import org.apache.ibatis.executor.result.ColumnarResult;
 import org.apache.ibatis.executor.result.DefaultResultContext;
 import org.apache.ibatis.executor.result.DefaultResultHandler;
 import org.apache.ibatis.executor.result.ResultMapException;
@@ -63,7 +69,11 @@ import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultContext;
 import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.ByteTypeHandler;
+import org.apache.ibatis.type.IntegerTypeHandler;
 import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.LongTypeHandler;
+import org.apache.ibatis.type.ShortTypeHandler;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.ibatis.type.TypeHandlerRegistry;
 import org.apache.ibatis.util.MapUtil;
@@ -77,6 +87,17 @@ import org.apache.ibatis.util.MapUtil;
 public class DefaultResultSetHandler implements ResultSetHandler {
 
   private static final Object DEFERRED = new Object();
+  private static final Object NO_RELATION_KEY = new Object();
+
+  private static final Set<Class<?>> INTEGER_TYPE_HANDLERS = new HashSet<>(Arrays.asList(IntegerTypeHandler.class,
+      LongTypeHandler.class, ShortTypeHandler.class, ByteTypeHandler.class));
+  private static final RowKey.Columns NO_ROW_KEY_COLUMNS = new RowKey.Columns(null, Collections.emptyList(), false);
+
+  /**
+   * The number of keys of completed parent objects that are kept to detect unordered rows of a resultOrdered statement.
+   * Rows that come back after more parent objects than this have been completed are not detected.
+   */
+  private static final int COMPLETED_ROW_KEYS = 1024;
 
   private final Executor executor;
   private final Configuration configuration;
@@ -90,13 +111,39 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private final ReflectorFactory reflectorFactory;
 
   // nested resultmaps
-  private final Map<CacheKey, Object> nestedResultObjects = new HashMap<>();
+  private final Map<Object, Object> nestedResultObjects = new HashMap<>();
   private final Map<String, Object> ancestorObjects = new HashMap<>();
   private Object previousRowValue;
+  private Object previousRowKey;
+  private final Map<Object, Boolean> completedRowKeys = new LinkedHashMap<Object, Boolean>() {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Object, Boolean> eldest) {
+      return size() > COMPLETED_ROW_KEYS;
+    }
+  };
+  // the id columns of the result maps that have a primitive row key, by column prefix
+  private final Map<ResultMap, Map<String, RowKey.Columns>> rowKeyColumns = new IdentityHashMap<>();
 
   // multiple resultsets
   private final Map<String, ResultMapping> nextResultMaps = new HashMap<>();
-  private final Map<CacheKey, List<PendingRelation>> pendingRelations = new HashMap<>();
+  // the parent objects waiting for the rows of each result set, by the key of their columns (see linkToParents)
+  private final Map<String, Map<Object, Object>> pendingRelations = new HashMap<>();
+
+  // batched nested queries, loaded once all the result sets have been handled
+  private Map<ResultMapping, BatchResultLoader> batchResultLoaders;
+  // lazily batched nested queries, the keys of all the rows handled so far are loaded together
+  private final Map<ResultMapping, BatchResultLoader> lazyBatchResultLoaders = new IdentityHashMap<>();
+
+  // the rows fetched from the current result set, including the skipped rows
+  private int fetchedRows;
+
+  // maps the rows of the current result set in parallel, kept between the calls of a cursor
+  private ParallelRowMapper parallelRowMapper;
+  // the columns read by the mapping of a row are recorded, or taken from a buffer, for a parallel row mapper
+  private RowBuffer.Columns recordedColumns;
+  private RowBuffer rowBuffer;
 
   // Cached Automappings
   private final Map<String, List<UnMappedColumnAutoMapping>> autoMappingsCache = new HashMap<>();
@@ -190,6 +237,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ErrorContext.instance().activity("handling results").object(mappedStatement.getId());
 
     final List<Object> multipleResults = new ArrayList<>();
+    // a result handler receives each row as it is mapped, so the batched nested selects are run per row
+    batchResultLoaders = resultHandler == null ? new IdentityHashMap<>() : null;
 
     int resultSetCount = 0;
     ResultSetWrapper rsw = getFirstResultSet(stmt);
@@ -213,6 +262,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
           String nestedResultMapId = parentMapping.getNestedResultMapId();
           ResultMap resultMap = configuration.getResultMap(nestedResultMapId);
           handleResultSet(rsw, resultMap, null, parentMapping);
+          // the rows of a result set are linked to the parents once
+          pendingRelations.remove(resultSets[resultSetCount]);
         }
         rsw = getNextResultSet(stmt);
         cleanUpAfterHandlingResultSet();
@@ -220,9 +271,21 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
 
+    loadBatchResults();
     return collapseSingleResultList(multipleResults);
   }
 
+  private void loadBatchResults() throws SQLException {
+    Map<ResultMapping, BatchResultLoader> loaders = batchResultLoaders;
+    if (loaders == null) {
+      return;
+    }
+    batchResultLoaders = null;
+    for (BatchResultLoader loader : loaders.values()) {
+      loader.load();
+    }
+  }
+
   @Override
   public <E> Cursor<E> handleCursorResultSets(Statement stmt) throws SQLException {
     ErrorContext.instance().activity("handling cursor results").object(mappedStatement.getId());
@@ -290,6 +353,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private void cleanUpAfterHandlingResultSet() {
     nestedResultObjects.clear();
+    completedRowKeys.clear();
+    rowKeyColumns.clear();
+    parallelRowMapper = null;
   }
 
   private void validateResultMapsCount(ResultSetWrapper rsw, int resultMapCount) {
@@ -305,6 +371,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     try {
       if (parentMapping != null) {
         handleRowValues(rsw, resultMap, null, RowBounds.DEFAULT, parentMapping);
+      } else if (ColumnarResult.class.equals(resultMap.getType())) {
+        handleColumnarResult(rsw, multipleResults);
       } else if (resultHandler == null) {
         DefaultResultHandler defaultResultHandler = new DefaultResultHandler(objectFactory);
         handleRowValues(rsw, resultMap, defaultResultHandler, rowBounds, null);
@@ -312,12 +380,85 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       } else {
         handleRowValues(rsw, resultMap, resultHandler, rowBounds, null);
       }
+      recordFetchedRows(rsw);
     } finally {
       // issue #228 (close resultsets)
       closeResultSet(rsw.getResultSet());
     }
   }
 
+  /**
+   * Records the rows fetched from a result set, from which the fetch size of the next execution of the statement is
+   * chosen if the {@code adaptiveFetchSize} setting is enabled.
+   *
+   * @param rsw
+   *          the result set whose rows have been handled
+   *
+   * @since 3.5.14
+   */
+  public void recordFetchedRows(ResultSetWrapper rsw) {
+    if (configuration.isAdaptiveFetchSize() && mappedStatement.getFetchSize() == null) {
+      mappedStatement.getAdaptiveFetchSize().record(fetchedRows, rsw.getJdbcTypes());
+    }
+    fetchedRows = 0;
+  }
+
+  /**
+   * Returns whether mapping a row with the result map may execute nested queries, either right away or later through
+   * lazy loading. The nested result maps and the result maps of the discriminators are checked too.
+   *
+   * @param resultMap
+   *          the result map
+   *
+   * @return {@code true} if the rows must be mapped on the thread that uses the session
+   *
+   * @since 3.5.14
+   */
+  public boolean hasNestedQueries(ResultMap resultMap) {
+    return hasNestedQueries(resultMap, new HashSet<>());
+  }
+
+  private boolean hasNestedQueries(ResultMap resultMap, Set<String> checkedResultMaps) {
+    if (!checkedResultMaps.add(resultMap.getId())) {
+      return false;
+    }
+    if (resultMap.hasNestedQueries()) {
+      return true;
+    }
+    List<String> nestedResultMapIds = new ArrayList<>();
+    for (ResultMapping resultMapping : resultMap.getResultMappings()) {
+      if (resultMapping.getNestedResultMapId() != null) {
+        nestedResultMapIds.add(resultMapping.getNestedResultMapId());
+      }
+    }
+    if (resultMap.getDiscriminator() != null) {
+      nestedResultMapIds.addAll(resultMap.getDiscriminator().getDiscriminatorMap().values());
+    }
+    for (String nestedResultMapId : nestedResultMapIds) {
+      if (configuration.hasResultMap(nestedResultMapId)
+          && hasNestedQueries(configuration.getResultMap(nestedResultMapId), checkedResultMaps)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void handleColumnarResult(ResultSetWrapper rsw, List<Object> multipleResults) throws SQLException {
+    skipRows(rsw.getResultSet(), rowBounds);
+    ColumnarResult columnarResult = ColumnarResult.read(rsw, rowBounds.getLimit());
+    fetchedRows += columnarResult.getRowCount();
+    if (resultHandler == null) {
+      List<Object> resultList = new ArrayList<>(1);
+      resultList.add(columnarResult);
+      multipleResults.add(resultList);
+    } else {
+      DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
+      resultContext.nextResultObject(columnarResult);
+      ((ResultHandler<Object>) resultHandler).handleResult(resultContext);
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private List<Object> collapseSingleResultList(List<Object> multipleResults) {
     return multipleResults.size() == 1 ? (List<Object>) multipleResults.get(0) : multipleResults;
@@ -358,16 +499,82 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   private void handleRowValuesForSimpleResultMap(ResultSetWrapper rsw, ResultMap resultMap,
       ResultHandler<?> resultHandler, RowBounds rowBounds, ResultMapping parentMapping) throws SQLException {
+    if (parentMapping == null && isParallelMapping(rsw, resultMap)) {
+      handleRowValuesInParallel(rsw, resultMap, resultHandler, rowBounds);
+      return;
+    }
     DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
     ResultSet resultSet = rsw.getResultSet();
     skipRows(resultSet, rowBounds);
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
+      fetchedRows++;
       ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
       Object rowValue = getRowValue(rsw, discriminatedResultMap, null);
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
     }
   }
 
+  private boolean isParallelMapping(ResultSetWrapper rsw, ResultMap resultMap) {
+    if (parallelRowMapper != null && parallelRowMapper.getResultSetWrapper() == rsw) {
+      return true;
+    }
+    return configuration.getParallelMappingChunkSize() > 0 && resultMap.getDiscriminator() == null
+        && !resultMap.hasNestedQueries() && ParallelRowMapper.canBuffer(rsw);
+  }
+
+  private void handleRowValuesInParallel(ResultSetWrapper rsw, ResultMap resultMap, ResultHandler<?> resultHandler,
+      RowBounds rowBounds) throws SQLException {
+    DefaultResultContext<Object> resultContext = new DefaultResultContext<>();
+    ResultSet resultSet = rsw.getResultSet();
+    if (parallelRowMapper == null || parallelRowMapper.getResultSetWrapper() != rsw) {
+      skipRows(resultSet, rowBounds);
+      ForkJoinPool pool = configuration.getParallelMappingPool();
+      parallelRowMapper = new ParallelRowMapper(rsw, resultMap, rowBounds.getLimit(),
+          configuration.getParallelMappingChunkSize(), pool == null ? ForkJoinPool.commonPool() : pool,
+          () -> new DefaultResultSetHandler(executor, mappedStatement, parameterHandler, resultHandler, boundSql,
+              rowBounds));
+    }
+    while (shouldProcessMoreRows(resultContext, rowBounds)) {
+      Object rowValue = parallelRowMapper.next();
+      if (rowValue == ParallelRowMapper.END) {
+        break;
+      }
+      storeObject(resultHandler, resultContext, rowValue, null, resultSet);
+    }
+    fetchedRows += parallelRowMapper.takeRowsRead();
+  }
+
+  // maps the current row of a result set, recording the columns read by the mapping for a parallel row mapper
+  Object getRecordedRowValue(ResultSetWrapper rsw, ResultMap resultMap, RowBuffer.Columns columns)
+      throws SQLException {
+    recordedColumns = columns;
+    try {
+      return getRowValue(rsw, resultMap, null);
+    } finally {
+      recordedColumns = null;
+    }
+  }
+
+  // maps the current row of the rows buffered by a parallel row mapper, on a thread of its pool
+  Object getBufferedRowValue(ResultSetWrapper rsw, ResultMap resultMap, RowBuffer buffer) throws SQLException {
+    rowBuffer = buffer;
+    try {
+      return getRowValue(rsw, resultMap, null);
+    } finally {
+      rowBuffer = null;
+    }
+  }
+
+  private Object getColumnValue(TypeHandler<?> typeHandler, ResultSet rs, String columnName) throws SQLException {
+    if (rowBuffer != null) {
+      return rowBuffer.getValue(typeHandler, columnName);
+    }
+    if (recordedColumns != null) {
+      recordedColumns.add(typeHandler, columnName);
+    }
+    return typeHandler.getResult(rs, columnName);
+  }
+
   private void storeObject(ResultHandler<?> resultHandler, DefaultResultContext<Object> resultContext, Object rowValue,
       ResultMapping parentMapping, ResultSet rs) throws SQLException {
     if (parentMapping != null) {
@@ -392,12 +599,14 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     if (rs.getType() != ResultSet.TYPE_FORWARD_ONLY) {
       if (rowBounds.getOffset() != RowBounds.NO_ROW_OFFSET) {
         rs.absolute(rowBounds.getOffset());
+        fetchedRows += rowBounds.getOffset();
       }
     } else {
       for (int i = 0; i < rowBounds.getOffset(); i++) {
         if (!rs.next()) {
           break;
         }
+        fetchedRows++;
       }
     }
   }
@@ -426,7 +635,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // GET VALUE FROM ROW FOR NESTED RESULT MAP
   //
 
-  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, CacheKey combinedKey, String columnPrefix,
+  private Object getRowValue(ResultSetWrapper rsw, ResultMap resultMap, Object combinedKey, String columnPrefix,
       Object partialObject) throws SQLException {
     final String resultMapId = resultMap.getId();
     Object rowValue = partialObject;
@@ -492,8 +701,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       if (propertyMapping.isCompositeResult()
           || column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))
           || propertyMapping.getResultSet() != null) {
-        Object value = getPropertyMappingValue(rsw.getResultSet(), metaObject, propertyMapping, lazyLoader,
-            columnPrefix);
+        Object value = getPropertyMappingValue(rsw, metaObject, propertyMapping, lazyLoader, columnPrefix);
         // issue #541 make property optional
         final String property = propertyMapping.getProperty();
         if (property == null) {
@@ -516,8 +724,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return foundValues;
   }
 
-  private Object getPropertyMappingValue(ResultSet rs, MetaObject metaResultObject, ResultMapping propertyMapping,
-      ResultLoaderMap lazyLoader, String columnPrefix) throws SQLException {
+  private Object getPropertyMappingValue(ResultSetWrapper rsw, MetaObject metaResultObject,
+      ResultMapping propertyMapping, ResultLoaderMap lazyLoader, String columnPrefix) throws SQLException {
+    final ResultSet rs = rsw.getResultSet();
     if (propertyMapping.getNestedQueryId() != null) {
       return getNestedQueryMappingValue(rs, metaResultObject, propertyMapping, lazyLoader, columnPrefix);
     }
@@ -525,9 +734,9 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       addPendingChildRelation(rs, metaResultObject, propertyMapping); // TODO is that OK?
       return DEFERRED;
     } else {
-      final TypeHandler<?> typeHandler = propertyMapping.getTypeHandler();
       final String column = prependPrefix(propertyMapping.getColumn(), columnPrefix);
-      return typeHandler.getResult(rs, column);
+      final TypeHandler<?> typeHandler = rsw.resolveTypeHandler(propertyMapping.getTypeHandler(), column);
+      return getColumnValue(typeHandler, rs, column);
     }
   }
 
@@ -583,7 +792,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     boolean foundValues = false;
     if (!autoMapping.isEmpty()) {
       for (UnMappedColumnAutoMapping mapping : autoMapping) {
-        final Object value = mapping.typeHandler.getResult(rsw.getResultSet(), mapping.column);
+        final Object value = getColumnValue(mapping.typeHandler, rsw.getResultSet(), mapping.column);
         if (value != null) {
           foundValues = true;
         }
@@ -598,29 +807,40 @@ public class DefaultResultSetHandler implements ResultSetHandler {
 
   // MULTIPLE RESULT SETS
 
+  /**
+   * Links an object to the parent objects waiting for the rows of its result set. The parents are indexed by the values
+   * of their columns, so the keys are compared without the column names: a single value, or a list of values for a
+   * composite key. A parent with only {@code null} values, or no columns, has the key {@link #NO_RELATION_KEY} and is
+   * linked to all the rows with the same key, as before.
+   */
   private void linkToParents(ResultSet rs, ResultMapping parentMapping, Object rowValue) throws SQLException {
-    CacheKey parentKey = createKeyForMultipleResults(rs, parentMapping, parentMapping.getColumn(),
-        parentMapping.getForeignColumn());
-    List<PendingRelation> parents = pendingRelations.get(parentKey);
-    if (parents != null) {
-      for (PendingRelation parent : parents) {
-        if (parent != null && rowValue != null) {
-          linkObjects(parent.metaObject, parent.propertyMapping, rowValue);
-        }
+    Map<Object, Object> relations = pendingRelations.get(parentMapping.getResultSet());
+    if (relations == null || rowValue == null) {
+      return;
+    }
+    Object key = parentMapping.getColumn() == null ? NO_RELATION_KEY
+        : createKeyForMultipleResults(rs, parentMapping.getForeignColumn());
+    Object parents = relations.get(key);
+    if (parents instanceof PendingRelation) {
+      PendingRelation parent = (PendingRelation) parents;
+      linkObjects(parent.metaObject, parent.propertyMapping, rowValue);
+    } else if (parents != null) {
+      for (PendingRelation parent : castPendingRelations(parents)) {
+        linkObjects(parent.metaObject, parent.propertyMapping, rowValue);
       }
     }
   }
 
   private void addPendingChildRelation(ResultSet rs, MetaObject metaResultObject, ResultMapping parentMapping)
       throws SQLException {
-    CacheKey cacheKey = createKeyForMultipleResults(rs, parentMapping, parentMapping.getColumn(),
-        parentMapping.getColumn());
+    Object key = createKeyForMultipleResults(rs, parentMapping.getColumn());
     PendingRelation deferLoad = new PendingRelation();
     deferLoad.metaObject = metaResultObject;
     deferLoad.propertyMapping = parentMapping;
-    List<PendingRelation> relations = MapUtil.computeIfAbsent(pendingRelations, cacheKey, k -> new ArrayList<>());
+    Map<Object, Object> relations = MapUtil.computeIfAbsent(pendingRelations, parentMapping.getResultSet(),
+        k -> new HashMap<>());
     // issue #255
-    relations.add(deferLoad);
+    relations.merge(key, deferLoad, DefaultResultSetHandler::addPendingRelation);
     ResultMapping previous = nextResultMaps.get(parentMapping.getResultSet());
     if (previous == null) {
       nextResultMaps.put(parentMapping.getResultSet(), parentMapping);
@@ -629,22 +849,61 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     }
   }
 
-  private CacheKey createKeyForMultipleResults(ResultSet rs, ResultMapping resultMapping, String names, String columns)
-      throws SQLException {
-    CacheKey cacheKey = new CacheKey();
-    cacheKey.update(resultMapping);
-    if (columns != null && names != null) {
-      String[] columnsArray = columns.split(",");
-      String[] namesArray = names.split(",");
-      for (int i = 0; i < columnsArray.length; i++) {
-        Object value = rs.getString(columnsArray[i]);
-        if (value != null) {
-          cacheKey.update(namesArray[i]);
-          cacheKey.update(value);
-        }
+  // a single relation is kept as is, more relations with the same key in a list
+  private static Object addPendingRelation(Object relations, Object relation) {
+    if (relations instanceof PendingRelation) {
+      List<PendingRelation> list = new ArrayList<>(2);
+      list.add((PendingRelation) relations);
+      list.add((PendingRelation) relation);
+      return list;
+    }
+    castPendingRelations(relations).add((PendingRelation) relation);
+    return relations;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<PendingRelation> castPendingRelations(Object relations) {
+    return (List<PendingRelation>) relations;
+  }
+
+  private Object createKeyForMultipleResults(ResultSet rs, String columns) throws SQLException {
+    if (columns == null) {
+      return NO_RELATION_KEY;
+    }
+    if (columns.indexOf(',') < 0) {
+      Object value = relationKeyValue(rs.getString(columns));
+      return value == null ? NO_RELATION_KEY : value;
+    }
+    String[] columnsArray = columns.split(",");
+    Object[] values = new Object[columnsArray.length];
+    boolean allNull = true;
+    for (int i = 0; i < columnsArray.length; i++) {
+      values[i] = relationKeyValue(rs.getString(columnsArray[i]));
+      allNull = allNull && values[i] == null;
+    }
+    return allNull ? NO_RELATION_KEY : Arrays.asList(values);
+  }
+
+  /**
+   * Returns the value of a column of a relation key. The values are compared as strings, but a string that is the
+   * canonical representation of a {@code long}, like the value of an integer column, is kept as a {@link Long}.
+   */
+  static Object relationKeyValue(String value) {
+    if (value == null) {
+      return null;
+    }
+    int length = value.length();
+    int start = length > 1 && value.charAt(0) == '-' ? 1 : 0;
+    if (length == start || length - start > 18 || value.charAt(start) == '0' && length > 1) {
+      return value;
+    }
+    for (int i = start; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return value;
       }
     }
-    return cacheKey;
+    return Long.parseLong(value);
   }
 
   //
@@ -657,16 +916,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final List<Class<?>> constructorArgTypes = new ArrayList<>();
     final List<Object> constructorArgs = new ArrayList<>();
     Object resultObject = createResultObject(rsw, resultMap, constructorArgTypes, constructorArgs, columnPrefix);
-    if (resultObject != null && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
-      final List<ResultMapping> propertyMappings = resultMap.getPropertyResultMappings();
-      for (ResultMapping propertyMapping : propertyMappings) {
-        // issue gcode #109 && issue #149
-        if (propertyMapping.getNestedQueryId() != null && propertyMapping.isLazy()) {
-          resultObject = configuration.getProxyFactory().createProxy(resultObject, lazyLoader, configuration,
-              objectFactory, constructorArgTypes, constructorArgs);
-          break;
-        }
-      }
+    // issue gcode #109 && issue #149
+    if (resultObject != null && resultMap.hasLazyNestedQueries()
+        && !hasTypeHandlerForResultObject(rsw, resultMap.getType())) {
+      resultObject = configuration.getProxyFactory().createProxy(resultObject, lazyLoader, configuration,
+          objectFactory, constructorArgTypes, constructorArgs);
     }
     this.useConstructorMappings = resultObject != null && !constructorArgTypes.isEmpty(); // set current mapping result
     return resultObject;
@@ -675,7 +929,6 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   private Object createResultObject(ResultSetWrapper rsw, ResultMap resultMap, List<Class<?>> constructorArgTypes,
       List<Object> constructorArgs, String columnPrefix) throws SQLException {
     final Class<?> resultType = resultMap.getType();
-    final MetaClass metaType = MetaClass.forClass(resultType, reflectorFactory);
     final List<ResultMapping> constructorMappings = resultMap.getConstructorResultMappings();
     if (hasTypeHandlerForResultObject(rsw, resultType)) {
       return createPrimitiveResultObject(rsw, resultMap, columnPrefix);
@@ -683,7 +936,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     if (!constructorMappings.isEmpty()) {
       return createParameterizedResultObject(rsw, resultType, constructorMappings, constructorArgTypes, constructorArgs,
           columnPrefix);
-    } else if (resultType.isInterface() || metaType.hasDefaultConstructor()) {
+    } else if (resultMap.isDefaultInstantiable()) {
       return objectFactory.create(resultType);
     } else if (shouldApplyAutomaticMappings(resultMap, false)) {
       return createByConstructorSignature(rsw, resultMap, columnPrefix, resultType, constructorArgTypes,
@@ -709,8 +962,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               configuration.getResultMap(constructorMapping.getNestedResultMapId()), constructorColumnPrefix);
           value = getRowValue(rsw, resultMap, constructorColumnPrefix);
         } else {
-          final TypeHandler<?> typeHandler = constructorMapping.getTypeHandler();
-          value = typeHandler.getResult(rsw.getResultSet(), prependPrefix(column, columnPrefix));
+          final String prefixedColumn = prependPrefix(column, columnPrefix);
+          final TypeHandler<?> typeHandler = rsw.resolveTypeHandler(constructorMapping.getTypeHandler(),
+              prefixedColumn);
+          value = getColumnValue(typeHandler, rsw.getResultSet(), prefixedColumn);
         }
       } catch (ResultMapException | SQLException e) {
         throw new ExecutorException("Could not process result for mapping: " + constructorMapping, e);
@@ -786,7 +1041,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       Class<?> parameterType = constructor.getParameterTypes()[i];
       String columnName = rsw.getColumnNames().get(i);
       TypeHandler<?> typeHandler = rsw.getTypeHandler(parameterType, columnName);
-      Object value = typeHandler.getResult(rsw.getResultSet(), columnName);
+      Object value = getColumnValue(typeHandler, rsw.getResultSet(), columnName);
       constructorArgTypes.add(parameterType);
       constructorArgs.add(value);
       foundValues = value != null || foundValues;
@@ -807,7 +1062,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
         if (columnMatchesParam(columnName, paramName, columnPrefix)) {
           Class<?> paramType = param.getType();
           TypeHandler<?> typeHandler = rsw.getTypeHandler(paramType, columnName);
-          Object value = typeHandler.getResult(rsw.getResultSet(), columnName);
+          Object value = getColumnValue(typeHandler, rsw.getResultSet(), columnName);
           constructorArgTypes.add(paramType);
           constructorArgs.add(value);
           final String mapKey = resultMap.getId() + ":" + columnPrefix;
@@ -857,7 +1112,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       columnName = rsw.getColumnNames().get(0);
     }
     final TypeHandler<?> typeHandler = rsw.getTypeHandler(resultType, columnName);
-    return typeHandler.getResult(rsw.getResultSet(), columnName);
+    return getColumnValue(typeHandler, rsw.getResultSet(), columnName);
   }
 
   //
@@ -893,7 +1148,26 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     final Object nestedQueryParameterObject = prepareParameterForNestedQuery(rs, propertyMapping,
         nestedQueryParameterType, columnPrefix);
     Object value = null;
-    if (nestedQueryParameterObject != null) {
+    if (nestedQueryParameterObject != null && propertyMapping.isBatch() && propertyMapping.isLazy()) {
+      BatchResultLoader batchResultLoader = MapUtil.computeIfAbsent(lazyBatchResultLoaders, propertyMapping,
+          k -> new BatchResultLoader(configuration, executor, nestedQuery, propertyMapping));
+      lazyLoader.addLoader(property, metaResultObject,
+          batchResultLoader.newLazyLoader(metaResultObject, nestedQueryParameterObject));
+      value = DEFERRED;
+    } else if (nestedQueryParameterObject != null && propertyMapping.isBatch()) {
+      if (batchResultLoaders == null) {
+        // a cursor or a result handler, the rows are not collected
+        BatchResultLoader batchResultLoader = new BatchResultLoader(configuration, executor, nestedQuery,
+            propertyMapping);
+        batchResultLoader.addTarget(metaResultObject, nestedQueryParameterObject);
+        batchResultLoader.load();
+      } else {
+        MapUtil.computeIfAbsent(batchResultLoaders, propertyMapping,
+            k -> new BatchResultLoader(configuration, executor, nestedQuery, propertyMapping))
+            .addTarget(metaResultObject, nestedQueryParameterObject);
+      }
+      value = DEFERRED;
+    } else if (nestedQueryParameterObject != null) {
       final BoundSql nestedBoundSql = nestedQuery.getBoundSql(nestedQueryParameterObject);
       final CacheKey key = executor.createCacheKey(nestedQuery, nestedQueryParameterObject, RowBounds.DEFAULT,
           nestedBoundSql);
@@ -1011,16 +1285,23 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     ResultSet resultSet = rsw.getResultSet();
     skipRows(resultSet, rowBounds);
     Object rowValue = previousRowValue;
+    Object rowValueKey = previousRowKey;
     while (shouldProcessMoreRows(resultContext, rowBounds) && !resultSet.isClosed() && resultSet.next()) {
+      fetchedRows++;
       final ResultMap discriminatedResultMap = resolveDiscriminatedResultMap(resultSet, resultMap, null);
-      final CacheKey rowKey = createRowKey(discriminatedResultMap, rsw, null);
+      final Object rowKey = createRowKey(discriminatedResultMap, rsw, null);
       Object partialObject = nestedResultObjects.get(rowKey);
       // issue #577 && #542
       if (mappedStatement.isResultOrdered()) {
         if (partialObject == null && rowValue != null) {
           nestedResultObjects.clear();
+          completeRowKey(rowValueKey);
           storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
         }
+        if (partialObject == null) {
+          checkRowOrder(rowKey, discriminatedResultMap);
+          rowValueKey = rowKey;
+        }
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
       } else {
         rowValue = getRowValue(rsw, discriminatedResultMap, rowKey, null, partialObject);
@@ -1030,10 +1311,27 @@ public class DefaultResultSetHandler implements ResultSetHandler {
       }
     }
     if (rowValue != null && mappedStatement.isResultOrdered() && shouldProcessMoreRows(resultContext, rowBounds)) {
+      completeRowKey(rowValueKey);
       storeObject(resultHandler, resultContext, rowValue, parentMapping, resultSet);
       previousRowValue = null;
+      previousRowKey = null;
     } else if (rowValue != null) {
       previousRowValue = rowValue;
+      previousRowKey = rowValueKey;
+    }
+  }
+
+  private void completeRowKey(Object rowKey) {
+    if (rowKey != null && rowKey != CacheKey.NULL_CACHE_KEY) {
+      completedRowKeys.put(rowKey, Boolean.TRUE);
+    }
+  }
+
+  private void checkRowOrder(Object rowKey, ResultMap resultMap) {
+    if (completedRowKeys.containsKey(rowKey)) {
+      throw new ExecutorException("The statement '" + mappedStatement.getId()
+          + "' is resultOrdered but returned a row for an object of the result map '" + resultMap.getId()
+          + "' that had already been completed. Order the rows by the id columns of the result map.");
     }
   }
 
@@ -1042,7 +1340,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   //
 
   private boolean applyNestedResultMappings(ResultSetWrapper rsw, ResultMap resultMap, MetaObject metaObject,
-      String parentPrefix, CacheKey parentRowKey, boolean newObject) {
+      String parentPrefix, Object parentRowKey, boolean newObject) {
     boolean foundValues = false;
     for (ResultMapping resultMapping : resultMap.getPropertyResultMappings()) {
       final String nestedResultMapId = resultMapping.getNestedResultMapId();
@@ -1061,8 +1359,8 @@ public class DefaultResultSetHandler implements ResultSetHandler {
               continue;
             }
           }
-          final CacheKey rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
-          final CacheKey combinedKey = combineKeys(rowKey, parentRowKey);
+          final Object rowKey = createRowKey(nestedResultMap, rsw, columnPrefix);
+          final Object combinedKey = combineKeys(rowKey, parentRowKey);
           Object rowValue = nestedResultObjects.get(combinedKey);
           boolean knownValue = rowValue != null;
           instantiateCollectionPropertyIfAppropriate(resultMapping, metaObject); // mandatory
@@ -1127,7 +1425,11 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   // UNIQUE RESULT KEY
   //
 
-  private CacheKey createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+  private Object createRowKey(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix) throws SQLException {
+    final RowKey.Columns columns = getRowKeyColumns(resultMap, rsw, columnPrefix);
+    if (columns != null) {
+      return columns.read(rsw.getResultSet());
+    }
     final CacheKey cacheKey = new CacheKey();
     cacheKey.update(resultMap.getId());
     List<ResultMapping> resultMappings = getResultMappingsForRowKey(resultMap);
@@ -1146,11 +1448,17 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return cacheKey;
   }
 
-  private CacheKey combineKeys(CacheKey rowKey, CacheKey parentRowKey) {
-    if (rowKey.getUpdateCount() > 1 && parentRowKey.getUpdateCount() > 1) {
+  private Object combineKeys(Object rowKey, Object parentRowKey) {
+    if (rowKey == CacheKey.NULL_CACHE_KEY || parentRowKey == CacheKey.NULL_CACHE_KEY) {
+      return CacheKey.NULL_CACHE_KEY;
+    }
+    if (rowKey instanceof RowKey) {
+      return ((RowKey) rowKey).combine(parentRowKey);
+    }
+    if (((CacheKey) rowKey).getUpdateCount() > 1) {
       CacheKey combinedKey;
       try {
-        combinedKey = rowKey.clone();
+        combinedKey = ((CacheKey) rowKey).clone();
       } catch (CloneNotSupportedException e) {
         throw new ExecutorException("Error cloning cache key.  Cause: " + e, e);
       }
@@ -1160,6 +1468,47 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     return CacheKey.NULL_CACHE_KEY;
   }
 
+  private RowKey.Columns getRowKeyColumns(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix)
+      throws SQLException {
+    Map<String, RowKey.Columns> columnsByPrefix = MapUtil.computeIfAbsent(rowKeyColumns, resultMap,
+        k -> new HashMap<>());
+    RowKey.Columns columns = columnsByPrefix.get(columnPrefix);
+    if (columns == null) {
+      columns = resolveRowKeyColumns(resultMap, rsw, columnPrefix);
+      columnsByPrefix.put(columnPrefix, columns);
+    }
+    return columns == NO_ROW_KEY_COLUMNS ? null : columns;
+  }
+
+  /**
+   * Resolves the id columns of a result map if they can be read as a {@link RowKey}, i.e. there are at most
+   * {@link RowKey#MAX_COLUMNS} of them and they are read by the built-in type handlers of integer types.
+   */
+  private RowKey.Columns resolveRowKeyColumns(ResultMap resultMap, ResultSetWrapper rsw, String columnPrefix)
+      throws SQLException {
+    List<ResultMapping> idResultMappings = resultMap.getIdResultMappings();
+    if (idResultMappings.isEmpty() || idResultMappings.size() > RowKey.MAX_COLUMNS) {
+      return NO_ROW_KEY_COLUMNS;
+    }
+    List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
+    List<String> columns = new ArrayList<>();
+    for (ResultMapping resultMapping : idResultMappings) {
+      final String column = prependPrefix(resultMapping.getColumn(), columnPrefix);
+      if (resultMapping.isSimple() && column != null
+          && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+        final TypeHandler<?> th = rsw.resolveTypeHandler(resultMapping.getTypeHandler(), column);
+        if (!INTEGER_TYPE_HANDLERS.contains(th.getClass())) {
+          return NO_ROW_KEY_COLUMNS;
+        }
+        columns.add(column);
+      }
+    }
+    if (columns.isEmpty()) {
+      return NO_ROW_KEY_COLUMNS;
+    }
+    return new RowKey.Columns(resultMap.getId(), columns, configuration.isReturnInstanceForEmptyRow());
+  }
+
   private List<ResultMapping> getResultMappingsForRowKey(ResultMap resultMap) {
     List<ResultMapping> resultMappings = resultMap.getIdResultMappings();
     if (resultMappings.isEmpty()) {
@@ -1173,10 +1522,10 @@ public class DefaultResultSetHandler implements ResultSetHandler {
     for (ResultMapping resultMapping : resultMappings) {
       if (resultMapping.isSimple()) {
         final String column = prependPrefix(resultMapping.getColumn(), columnPrefix);
-        final TypeHandler<?> th = resultMapping.getTypeHandler();
         List<String> mappedColumnNames = rsw.getMappedColumnNames(resultMap, columnPrefix);
         // Issue #114
         if (column != null && mappedColumnNames.contains(column.toUpperCase(Locale.ENGLISH))) {
+          final TypeHandler<?> th = rsw.resolveTypeHandler(resultMapping.getTypeHandler(), column);
           final Object value = th.getResult(rsw.getResultSet(), column);
           if (value != null || configuration.isReturnInstanceForEmptyRow()) {
             cacheKey.update(column);
@@ -1257,10 +1606,7 @@ public class DefaultResultSetHandler implements ResultSetHandler {
   }
 
   private boolean hasTypeHandlerForResultObject(ResultSetWrapper rsw, Class<?> resultType) {
-    if (rsw.getColumnNames().size() == 1) {
-      return typeHandlerRegistry.hasTypeHandler(resultType, rsw.getJdbcType(rsw.getColumnNames().get(0)));
-    }
-    return typeHandlerRegistry.hasTypeHandler(resultType);
+    return rsw.hasTypeHandler(resultType);
   }
 
 }
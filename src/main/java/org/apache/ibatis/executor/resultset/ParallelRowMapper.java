@@ -0,0 +1,233 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * Maps the rows of a result set to objects on a fork-join pool, in the order of the rows.
+ * <p>
+ * The first row is mapped on the calling thread, recording the columns its mapping reads and their type handlers. The
+ * following rows are read on the calling thread into {@link RowBuffer}s of a fixed number of rows, each column with the
+ * type handler the mapping uses, so the values are converted by the driver and the type handlers exactly as when the
+ * rows are mapped serially. Each buffer is then mapped by a task on the pool with a result set handler of its own,
+ * which takes the values from the buffer. The calling thread reads ahead up to two buffers per thread of the pool, and
+ * waits for the oldest buffer to be mapped when it needs the next object. A result set whose rows fit in a single
+ * buffer is mapped on the calling thread.
+ * </p>
+ * <p>
+ * Only result maps without nested result maps, nested queries and discriminators are mapped in parallel, as they need
+ * the state of the session. The columns whose values may depend on the row the result set is positioned on, like LOBs
+ * and arrays, are not buffered either (see {@link #canBuffer(ResultSetWrapper)}).
+ * </p>
+ *
+ * @since 3.5.14
+ */
+final class ParallelRowMapper {
+
+  /**
+   * Returned by {@link #next()} when all the rows have been mapped.
+   */
+  static final Object END = new Object();
+
+  private static final Set<JdbcType> UNBUFFERED_TYPES = EnumSet.of(JdbcType.ARRAY, JdbcType.BLOB, JdbcType.CLOB,
+      JdbcType.NCLOB, JdbcType.LONGVARBINARY, JdbcType.LONGVARCHAR, JdbcType.LONGNVARCHAR, JdbcType.SQLXML,
+      JdbcType.STRUCT, JdbcType.JAVA_OBJECT, JdbcType.OTHER, JdbcType.UNDEFINED);
+
+  private final ResultSetWrapper rsw;
+  private final ResultMap resultMap;
+  private final Supplier<DefaultResultSetHandler> handlerFactory;
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+  private final int maxChunks;
+  private final Deque<Future<Object[]>> chunks = new ArrayDeque<>();
+
+  private RowBuffer.Columns columns;
+
+  private int remainingRows;
+  private boolean exhausted;
+  private Object[] objects;
+  private int position;
+  private int rowsRead;
+
+  /**
+   * Creates a mapper of the rows of a result set positioned before the first row to map.
+   *
+   * @param rsw
+   *          the result set
+   * @param resultMap
+   *          the result map of the rows
+   * @param limit
+   *          the maximum number of rows to map
+   * @param chunkSize
+   *          the number of rows mapped by each task
+   * @param pool
+   *          the pool of the tasks
+   * @param handlerFactory
+   *          creates the result set handlers that map the rows
+   */
+  ParallelRowMapper(ResultSetWrapper rsw, ResultMap resultMap, int limit, int chunkSize, ForkJoinPool pool,
+      Supplier<DefaultResultSetHandler> handlerFactory) {
+    this.rsw = rsw;
+    this.resultMap = resultMap;
+    this.remainingRows = limit;
+    this.chunkSize = chunkSize;
+    this.pool = pool;
+    this.maxChunks = Math.max(2, pool.getParallelism() * 2);
+    this.handlerFactory = handlerFactory;
+  }
+
+  /**
+   * Returns whether all the columns of a result set can be buffered, i.e. the values read by their type handlers can be
+   * used after the result set has moved to the next row.
+   *
+   * @param rsw
+   *          the result set
+   *
+   * @return {@code true} if the rows can be mapped in parallel
+   */
+  static boolean canBuffer(ResultSetWrapper rsw) {
+    for (JdbcType jdbcType : rsw.getJdbcTypes()) {
+      if (jdbcType == null || UNBUFFERED_TYPES.contains(jdbcType)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  ResultSetWrapper getResultSetWrapper() {
+    return rsw;
+  }
+
+  /**
+   * Returns the object of the next row.
+   *
+   * @return the object, which is {@code null} for an empty row, or {@link #END}
+   *
+   * @throws SQLException
+   *           if the rows cannot be read or mapped
+   */
+  Object next() throws SQLException {
+    while (objects == null || position == objects.length) {
+      readChunks();
+      Future<Object[]> chunk = chunks.poll();
+      if (chunk == null) {
+        objects = null;
+        return END;
+      }
+      objects = join(chunk);
+      position = 0;
+    }
+    Object object = objects[position];
+    objects[position++] = null;
+    return object;
+  }
+
+  /**
+   * Returns the number of rows read since the last call.
+   *
+   * @return the number of rows
+   */
+  int takeRowsRead() {
+    int rows = rowsRead;
+    rowsRead = 0;
+    return rows;
+  }
+
+  private void readChunks() throws SQLException {
+    ResultSet rs = rsw.getResultSet();
+    boolean firstBuffer = false;
+    if (columns == null) {
+      columns = new RowBuffer.Columns();
+      exhausted = remainingRows <= 0 || rs.isClosed() || !rs.next();
+      if (exhausted) {
+        return;
+      }
+      rowsRead++;
+      remainingRows--;
+      exhausted = remainingRows == 0;
+      // the first row is mapped on the calling thread, recording the columns read by the mapping
+      Object rowValue = handlerFactory.get().getRecordedRowValue(rsw, resultMap, columns);
+      chunks.add(CompletableFuture.completedFuture(new Object[] { rowValue }));
+      firstBuffer = true;
+    }
+    while (!exhausted && chunks.size() < maxChunks) {
+      RowBuffer buffer = new RowBuffer(columns, Math.min(chunkSize, remainingRows));
+      while (!buffer.isFull() && !rs.isClosed() && rs.next()) {
+        buffer.add(rs);
+      }
+      rowsRead += buffer.getRowCount();
+      remainingRows -= buffer.getRowCount();
+      exhausted = !buffer.isFull() || remainingRows == 0;
+      if (buffer.getRowCount() > 0) {
+        ResultSetWrapper bufferRsw = new ResultSetWrapper(rsw, buffer.getResultSet());
+        if (exhausted && firstBuffer) {
+          // a single buffer is not worth a task
+          chunks.add(CompletableFuture.completedFuture(map(buffer, bufferRsw)));
+        } else {
+          chunks.add(pool.submit(() -> map(buffer, bufferRsw)));
+        }
+      }
+      firstBuffer = false;
+    }
+  }
+
+  private Object[] map(RowBuffer buffer, ResultSetWrapper bufferRsw) throws SQLException {
+    DefaultResultSetHandler handler = handlerFactory.get();
+    Object[] rowValues = new Object[buffer.getRowCount()];
+    for (int i = 0; i < rowValues.length; i++) {
+      buffer.moveTo(i);
+      rowValues[i] = handler.getBufferedRowValue(bufferRsw, resultMap, buffer);
+    }
+    return rowValues;
+  }
+
+  private Object[] join(Future<Object[]> chunk) throws SQLException {
+    try {
+      return chunk.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ExecutorException("Interrupted while mapping rows in parallel.", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new ExecutorException("Error mapping rows in parallel. Cause: " + cause, cause);
+    }
+  }
+
+}
@@ -47,6 +47,8 @@ public class ResultSetWrapper {
   private final List<String> classNames = new ArrayList<>();
   private final List<JdbcType> jdbcTypes = new ArrayList<>();
   private final Map<String, Map<Class<?>, TypeHandler<?>>> typeHandlerMap = new HashMap<>();
+  private final Map<String, TypeHandler<?>> unknownTypeHandlerMap = new HashMap<>();
+  private final Map<Class<?>, Boolean> hasTypeHandlerMap = new HashMap<>();
   private final Map<String, List<String>> mappedColumnNamesMap = new HashMap<>();
   private final Map<String, List<String>> unMappedColumnNamesMap = new HashMap<>();
 
@@ -62,6 +64,28 @@ public class ResultSetWrapper {
     }
   }
 
+  /**
+   * Creates a wrapper of another result set with the same columns and the type handlers resolved so far, e.g. the rows
+   * buffered from the result set of the given wrapper.
+   *
+   * @param rsw
+   *          the wrapper to take the columns from
+   * @param rs
+   *          the result set
+   *
+   * @since 3.5.14
+   */
+  ResultSetWrapper(ResultSetWrapper rsw, ResultSet rs) {
+    this.typeHandlerRegistry = rsw.typeHandlerRegistry;
+    this.resultSet = rs;
+    this.columnNames.addAll(rsw.columnNames);
+    this.classNames.addAll(rsw.classNames);
+    this.jdbcTypes.addAll(rsw.jdbcTypes);
+    // the same type handlers are resolved for the columns
+    rsw.typeHandlerMap.forEach((columnName, handlers) -> this.typeHandlerMap.put(columnName, new HashMap<>(handlers)));
+    this.unknownTypeHandlerMap.putAll(rsw.unknownTypeHandlerMap);
+  }
+
   public ResultSet getResultSet() {
     return resultSet;
   }
@@ -131,6 +155,70 @@ public class ResultSetWrapper {
     return handler;
   }
 
+  /**
+   * Returns whether a result object of the given type can be read with a single type handler. If the result set has
+   * only one column, its JDBC type is taken into account. The result is cached for the result set.
+   *
+   * @param javaType
+   *          the result object type
+   *
+   * @return {@code true} if there is a type handler for the type
+   *
+   * @since 3.5.14
+   */
+  public boolean hasTypeHandler(Class<?> javaType) {
+    Boolean hasTypeHandler = hasTypeHandlerMap.get(javaType);
+    if (hasTypeHandler == null) {
+      if (columnNames.size() == 1) {
+        hasTypeHandler = typeHandlerRegistry.hasTypeHandler(javaType, jdbcTypes.get(0));
+      } else {
+        hasTypeHandler = typeHandlerRegistry.hasTypeHandler(javaType);
+      }
+      hasTypeHandlerMap.put(javaType, hasTypeHandler);
+    }
+    return hasTypeHandler;
+  }
+
+  /**
+   * Replaces an {@link UnknownTypeHandler} with the type handler that it would choose for the column. The result is
+   * cached, so the column meta data is looked up only once per result set instead of once per row.
+   *
+   * @param typeHandler
+   *          the type handler of the mapping
+   * @param columnName
+   *          the column name
+   *
+   * @return the given type handler unless it is an {@link UnknownTypeHandler}
+   *
+   * @since 3.5.14
+   */
+  public TypeHandler<?> resolveTypeHandler(TypeHandler<?> typeHandler, String columnName) {
+    if (columnName == null || typeHandler == null || typeHandler.getClass() != UnknownTypeHandler.class) {
+      return typeHandler;
+    }
+    TypeHandler<?> handler = unknownTypeHandlerMap.get(columnName);
+    if (handler == null) {
+      // Replicate logic of UnknownTypeHandler#resolveTypeHandler(ResultSet, String)
+      final int index = columnNames.lastIndexOf(columnName);
+      if (index >= 0) {
+        final JdbcType jdbcType = jdbcTypes.get(index);
+        final Class<?> javaType = resolveClass(classNames.get(index));
+        if (javaType != null && jdbcType != null) {
+          handler = typeHandlerRegistry.getTypeHandler(javaType, jdbcType);
+        } else if (javaType != null) {
+          handler = typeHandlerRegistry.getTypeHandler(javaType);
+        } else if (jdbcType != null) {
+          handler = typeHandlerRegistry.getTypeHandler(jdbcType);
+        }
+      }
+      if (handler == null || handler instanceof UnknownTypeHandler) {
+        handler = new ObjectTypeHandler();
+      }
+      unknownTypeHandlerMap.put(columnName, handler);
+    }
+    return handler;
+  }
+
   private Class<?> resolveClass(String className) {
     try {
       // #699 className could be null
@@ -0,0 +1,198 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.type.TypeHandler;
+
+/**
+ * The column values of a chunk of rows, read on the calling thread by the type handlers of the mapping, which are
+ * mapped to objects on another thread.
+ * <p>
+ * The columns are the pairs of a type handler and a column name read by the mapping of the first row of the result set
+ * (see {@link Columns}). The buffer reads the same columns of each row with the same type handlers, so the values are
+ * those the mapping would have read itself, and the driver is only used by the calling thread. The values of all the
+ * rows are held in a single array, and are looked up with {@link #getValue(TypeHandler, String)} for the row the buffer
+ * is positioned on with {@link #moveTo(int)}.
+ * </p>
+ * <p>
+ * The {@link ResultSet} of the buffer only stands for it in the result set wrapper of the mapping; the values are not
+ * read through it, so its methods are not supported.
+ * </p>
+ *
+ * @since 3.5.14
+ */
+final class RowBuffer implements InvocationHandler {
+
+  private final Columns columns;
+  private final int columnCount;
+  private final int capacity;
+  private final Object[] values;
+  private final ResultSet resultSet;
+  private int rowCount;
+  private int offset;
+
+  /**
+   * Creates an empty buffer.
+   *
+   * @param columns
+   *          the columns read by the mapping
+   * @param capacity
+   *          the maximum number of rows
+   */
+  RowBuffer(Columns columns, int capacity) {
+    this.columns = columns;
+    this.columnCount = columns.size();
+    this.capacity = capacity;
+    this.values = new Object[columnCount * capacity];
+    this.resultSet = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+        new Class<?>[] { ResultSet.class }, this);
+  }
+
+  boolean isFull() {
+    return rowCount == capacity;
+  }
+
+  int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Adds the current row of a result set to the buffer.
+   *
+   * @param rs
+   *          the result set
+   *
+   * @throws SQLException
+   *           if a column cannot be read
+   */
+  void add(ResultSet rs) throws SQLException {
+    int base = rowCount * columnCount;
+    for (int i = 0; i < columnCount; i++) {
+      values[base + i] = columns.typeHandlers.get(i).getResult(rs, columns.columnNames.get(i));
+    }
+    rowCount++;
+  }
+
+  /**
+   * Positions the buffer on a row.
+   *
+   * @param row
+   *          the index of the row, from {@code 0}
+   */
+  void moveTo(int row) {
+    offset = row * columnCount;
+  }
+
+  /**
+   * Returns the value of a column of the current row, as read by a type handler.
+   *
+   * @param typeHandler
+   *          the type handler
+   * @param columnName
+   *          the column name, with its prefix
+   *
+   * @return the value
+   */
+  Object getValue(TypeHandler<?> typeHandler, String columnName) {
+    int index = columns.indexOf(typeHandler, columnName);
+    if (index < 0) {
+      throw new ExecutorException("Column '" + columnName + "' was not read with " + typeHandler
+          + " by the mapping of the first row, and cannot be mapped in parallel.");
+    }
+    return values[offset + index];
+  }
+
+  /**
+   * Returns a result set that stands for the buffer. It must only be used by one thread at a time.
+   *
+   * @return the result set
+   */
+  ResultSet getResultSet() {
+    return resultSet;
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] params) throws Throwable {
+    String name = method.getName();
+    if (Object.class.equals(method.getDeclaringClass())) {
+      switch (name) {
+        case "equals":
+          return proxy == params[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        default:
+          return "RowBuffer [rowCount=" + rowCount + ", row=" + offset / Math.max(1, columnCount) + "]";
+      }
+    }
+    if ("isClosed".equals(name)) {
+      return false;
+    }
+    throw new SQLFeatureNotSupportedException(
+        "ResultSet." + name + " is not supported for the rows buffered for parallel result mapping.");
+  }
+
+  /**
+   * The columns read by the mapping of a row, each with the type handler that read it.
+   */
+  static final class Columns {
+
+    private final List<TypeHandler<?>> typeHandlers = new ArrayList<>();
+    private final List<String> columnNames = new ArrayList<>();
+    private final Map<TypeHandler<?>, Map<String, Integer>> indexes = new IdentityHashMap<>();
+
+    /**
+     * Records a column read by the mapping.
+     *
+     * @param typeHandler
+     *          the type handler
+     * @param columnName
+     *          the column name, with its prefix
+     */
+    void add(TypeHandler<?> typeHandler, String columnName) {
+      Map<String, Integer> columnIndexes = indexes.computeIfAbsent(typeHandler, k -> new HashMap<>());
+      if (!columnIndexes.containsKey(columnName)) {
+        columnIndexes.put(columnName, typeHandlers.size());
+        typeHandlers.add(typeHandler);
+        columnNames.add(columnName);
+      }
+    }
+
+    int size() {
+      return typeHandlers.size();
+    }
+
+    private int indexOf(TypeHandler<?> typeHandler, String columnName) {
+      Map<String, Integer> columnIndexes = indexes.get(typeHandler);
+      Integer index = columnIndexes == null ? null : columnIndexes.get(columnName);
+      return index == null ? -1 : index;
+    }
+
+  }
+
+}
@@ -0,0 +1,156 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.ibatis.cache.CacheKey;
+
+/**
+ * Identifies the object a row is mapped to by a nested result map, for result maps whose id is one or two integer
+ * columns read by the built-in type handlers.
+ * <p>
+ * The general row key is a {@link CacheKey} holding a list of the column names and values, which is cloned again for
+ * the key combined with the parent row key. A row key holds the id values as {@code long}s and refers to the parent
+ * key instead. The columns of a result map are resolved once per result set and reused for all the rows (see
+ * {@link Columns}).
+ * </p>
+ * <p>
+ * Two row keys are equal if they have been read by the same {@link Columns} with the same values and have equal parent
+ * keys. A row key is never equal to a {@link CacheKey}, as a result map uses either the one or the other.
+ * </p>
+ *
+ * @since 3.5.14
+ */
+final class RowKey {
+
+  /**
+   * The maximum number of id columns of a row key.
+   */
+  static final int MAX_COLUMNS = 2;
+
+  private final Columns columns;
+  private final long first;
+  private final long second;
+  /**
+   * The columns whose values are {@code null}, one bit per column.
+   */
+  private final int nulls;
+  private final Object parent;
+  private final int hashCode;
+
+  private RowKey(Columns columns, long first, long second, int nulls, Object parent) {
+    this.columns = columns;
+    this.first = first;
+    this.second = second;
+    this.nulls = nulls;
+    this.parent = parent;
+    int hash = columns.hashCode();
+    hash = 31 * hash + Long.hashCode(first);
+    hash = 31 * hash + Long.hashCode(second);
+    hash = 31 * hash + nulls;
+    this.hashCode = parent == null ? hash : 31 * hash + parent.hashCode();
+  }
+
+  /**
+   * Returns the key of this row combined with the key of the parent row.
+   *
+   * @param parentRowKey
+   *          a {@link RowKey} or a {@link CacheKey}
+   *
+   * @return the combined key
+   */
+  RowKey combine(Object parentRowKey) {
+    return new RowKey(columns, first, second, nulls, parentRowKey);
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (this == object) {
+      return true;
+    }
+    if (!(object instanceof RowKey)) {
+      return false;
+    }
+    RowKey other = (RowKey) object;
+    return hashCode == other.hashCode && columns == other.columns && first == other.first && second == other.second
+        && nulls == other.nulls && (parent == null ? other.parent == null : parent.equals(other.parent));
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(columns.resultMapId);
+    for (int i = 0; i < columns.names.length; i++) {
+      sb.append(':').append(columns.names[i]).append('=');
+      sb.append((nulls & 1 << i) != 0 ? "null" : String.valueOf(i == 0 ? first : second));
+    }
+    return parent == null ? sb.toString() : sb.append(" < ").append(parent).toString();
+  }
+
+  /**
+   * The id columns of a result map (with a column prefix) in a result set.
+   */
+  static final class Columns {
+    private final String resultMapId;
+    private final String[] names;
+    private final boolean returnInstanceForEmptyRow;
+
+    Columns(String resultMapId, List<String> names, boolean returnInstanceForEmptyRow) {
+      this.resultMapId = resultMapId;
+      this.names = names.toArray(new String[0]);
+      this.returnInstanceForEmptyRow = returnInstanceForEmptyRow;
+    }
+
+    /**
+     * Reads the key of the current row.
+     *
+     * @param rs
+     *          the result set
+     *
+     * @return the row key, or {@link CacheKey#NULL_CACHE_KEY} if all the id columns are {@code null}
+     *
+     * @throws SQLException
+     *           if a column cannot be read
+     */
+    Object read(ResultSet rs) throws SQLException {
+      long first = 0;
+      long second = 0;
+      int nulls = 0;
+      for (int i = 0; i < names.length; i++) {
+        long value = rs.getLong(names[i]);
+        if (rs.wasNull()) {
+          nulls |= 1 << i;
+        } else if (i == 0) {
+          first = value;
+        } else {
+          second = value;
+        }
+      }
+      if (nulls == (1 << names.length) - 1 && !returnInstanceForEmptyRow) {
+        return CacheKey.NULL_CACHE_KEY;
+      }
+      return new RowKey(this, first, second, nulls, null);
+    }
+  }
+
+}
@@ -27,6 +27,7 @@ import org.apache.ibatis.executor.parameter.ParameterHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.mapping.BoundSql;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
 import org.apache.ibatis.reflection.factory.ObjectFactory;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ResultHandler;
@@ -121,6 +122,11 @@ public abstract class BaseStatementHandler implements StatementHandler {
       stmt.setFetchSize(fetchSize);
       return;
     }
+    if (configuration.isAdaptiveFetchSize() && mappedStatement.getSqlCommandType() == SqlCommandType.SELECT) {
+      stmt.setFetchSize(mappedStatement.getAdaptiveFetchSize().nextFetchSize(configuration.getDefaultFetchSize(),
+          configuration.getMinAdaptiveFetchSize(), configuration.getMaxAdaptiveFetchSize(), rowBounds));
+      return;
+    }
     Integer defaultFetchSize = configuration.getDefaultFetchSize();
     if (defaultFetchSize != null) {
       stmt.setFetchSize(defaultFetchSize);
@@ -0,0 +1,173 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * The annotation processor that writes the class index ({@value ResolverUtil#CLASS_INDEX_RESOURCE}) consulted by
+ * {@link ResolverUtil} instead of scanning the packages with the {@link VFS}.
+ * <p>
+ * This processor is not registered automatically. Enable it with the {@code -processor} option of {@code javac} (or
+ * the {@code annotationProcessors} of the maven-compiler-plugin), and optionally restrict the index to the packages
+ * that are scanned by MyBatis with {@code -Amybatis.index.packages=com.example.domain,com.example.mapper}.
+ * <p>
+ * The index also lists the packages it covers, as {@code com.example.domain.*} (or {@code *} when all the packages are
+ * indexed). When a package within them is scanned, only the indexed classes of the class path entry that holds the
+ * index are examined, so the index must be regenerated when classes are added to these packages. The other packages,
+ * and the other class path entries, are still scanned. Entries of an existing index whose classes still exist are
+ * kept, which supports incremental compilation.
+ *
+ * @since 3.5.14
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(ClassIndexProcessor.PACKAGES_OPTION)
+public class ClassIndexProcessor extends AbstractProcessor {
+
+  /**
+   * The option that specifies the comma separated packages to index (including subpackages).
+   */
+  public static final String PACKAGES_OPTION = "mybatis.index.packages";
+
+  private final Set<String> classes = new TreeSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeIndex();
+    } else {
+      for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+        addType(type);
+      }
+    }
+    return false;
+  }
+
+  private void addType(TypeElement type) {
+    String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+    if (isIndexed(name)) {
+      classes.add(name);
+    }
+    for (TypeElement enclosed : ElementFilter.typesIn(type.getEnclosedElements())) {
+      addType(enclosed);
+    }
+  }
+
+  private boolean isIndexed(String name) {
+    List<String> packages = getIndexedPackages();
+    if (packages.isEmpty()) {
+      return true;
+    }
+    for (String packageName : packages) {
+      if (name.startsWith(packageName + ".")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private List<String> getIndexedPackages() {
+    String option = processingEnv.getOptions().get(PACKAGES_OPTION);
+    List<String> packages = new ArrayList<>();
+    if (option != null) {
+      for (String packageName : option.split(",")) {
+        if (!packageName.trim().isEmpty()) {
+          packages.add(packageName.trim());
+        }
+      }
+    }
+    return packages;
+  }
+
+  private void writeIndex() {
+    Set<String> entries = new TreeSet<>(classes);
+    entries.addAll(readExistingIndex());
+    if (entries.isEmpty()) {
+      return;
+    }
+    try {
+      FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+          ResolverUtil.CLASS_INDEX_RESOURCE);
+      try (Writer writer = resource.openWriter()) {
+        List<String> packages = getIndexedPackages();
+        if (packages.isEmpty()) {
+          writer.write("*\n");
+        }
+        for (String packageName : new TreeSet<>(packages)) {
+          writer.write(packageName);
+          writer.write(".*\n");
+        }
+        for (String entry : entries) {
+          writer.write(entry);
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+          "Could not write " + ResolverUtil.CLASS_INDEX_RESOURCE + ": " + e);
+    }
+  }
+
+  private Set<String> readExistingIndex() {
+    Set<String> entries = new TreeSet<>();
+    try {
+      FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+          ResolverUtil.CLASS_INDEX_RESOURCE);
+      try (BufferedReader reader = new BufferedReader(
+          new InputStreamReader(resource.openInputStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          line = line.trim();
+          // keep the classes that were not compiled this time but still exist
+          if (!line.isEmpty() && !line.endsWith("*") && isIndexed(line)
+              && processingEnv.getElementUtils().getTypeElement(line.replace('$', '.')) != null) {
+            entries.add(line);
+          }
+        }
+      }
+    } catch (IOException e) {
+      // no index yet
+      return Collections.emptySet();
+    }
+    return entries;
+  }
+
+}
@@ -15,10 +15,18 @@
  */
 package org.apache.ibatis.io;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.ibatis.logging.Log;
@@ -62,6 +70,15 @@ public class ResolverUtil<T> {
    */
   private static final Log log = LogFactory.getLog(ResolverUtil.class);
 
+  /**
+   * The location of the class index files that list the classes to be considered when scanning a package.
+   *
+   * @since 3.5.14
+   *
+   * @see ClassIndexProcessor
+   */
+  public static final String CLASS_INDEX_RESOURCE = "META-INF/mybatis/index";
+
   /**
    * A simple interface that specifies how to test classes to determine if they are to be included in the results
    * produced by the ResolverUtil.
@@ -247,10 +264,22 @@ public class ResolverUtil<T> {
     String path = getPackagePath(packageName);
 
     try {
-      List<String> children = VFS.getInstance().list(path);
-      for (String child : children) {
-        if (child.endsWith(".class")) {
-          addIfMatching(test, child);
+      Map<String, List<String>> indexedClasses = findIndexedClasses(packageName);
+      for (List<String> classes : indexedClasses.values()) {
+        for (String indexedClass : classes) {
+          addIfMatching(test, indexedClass.replace('.', '/') + ".class");
+        }
+      }
+      VFS vfs = VFS.getInstance();
+      for (URL url : VFS.getResources(path)) {
+        // the class path entries whose index covers the package are not scanned
+        if (indexedClasses.containsKey(getClassPathEntry(url, path))) {
+          continue;
+        }
+        for (String child : vfs.list(url, path)) {
+          if (child.endsWith(".class")) {
+            addIfMatching(test, child);
+          }
         }
       }
     } catch (IOException ioe) {
@@ -260,6 +289,75 @@ public class ResolverUtil<T> {
     return this;
   }
 
+  /**
+   * Returns the classes in the package (or its subpackages) that are listed in the class index files
+   * ({@value #CLASS_INDEX_RESOURCE}) visible to the class loader, by the class path entry of the index file. An index
+   * file covers the packages it was built for (the lines that end with {@code .*}, or {@code *} for all the packages),
+   * and only the class path entries whose index covers the package are returned. The other entries are scanned with
+   * the {@link VFS}.
+   *
+   * @param packageName
+   *          the package name
+   *
+   * @return the binary names of the indexed classes, by the URL of the class path entry of their index file
+   *
+   * @since 3.5.14
+   */
+  protected Map<String, List<String>> findIndexedClasses(String packageName) {
+    Map<String, List<String>> indexedClasses = new HashMap<>();
+    if (packageName == null) {
+      return indexedClasses;
+    }
+    String prefix = packageName.isEmpty() ? "" : packageName + ".";
+    try {
+      Enumeration<URL> indexes = getClassLoader().getResources(CLASS_INDEX_RESOURCE);
+      while (indexes.hasMoreElements()) {
+        URL index = indexes.nextElement();
+        boolean covered = false;
+        List<String> classes = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+              continue;
+            }
+            if (line.endsWith("*")) {
+              covered |= coversPackage(line.substring(0, Math.max(0, line.length() - 2)), packageName);
+            } else if (line.startsWith(prefix)) {
+              classes.add(line);
+            }
+          }
+        }
+        if (covered) {
+          indexedClasses.computeIfAbsent(getClassPathEntry(index, CLASS_INDEX_RESOURCE), k -> new ArrayList<>())
+              .addAll(classes);
+        }
+      }
+    } catch (IOException e) {
+      log.error("Could not read class index for package: " + packageName, e);
+      indexedClasses.clear();
+    }
+    return indexedClasses;
+  }
+
+  private static boolean coversPackage(String root, String packageName) {
+    return root.isEmpty() || packageName.equals(root) || packageName.startsWith(root + ".");
+  }
+
+  // e.g. jar:file:/lib/app.jar! for jar:file:/lib/app.jar!/com/example and the path com/example
+  private static String getClassPathEntry(URL url, String path) {
+    String entry = url.toExternalForm();
+    if (entry.endsWith("/")) {
+      entry = entry.substring(0, entry.length() - 1);
+    }
+    if (entry.endsWith(path)) {
+      entry = entry.substring(0, entry.length() - path.length());
+    }
+    return entry.endsWith("/") ? entry.substring(0, entry.length() - 1) : entry;
+  }
+
   /**
    * Converts a Java package name to a path that can be looked up with a call to
    * {@link ClassLoader#getResources(String)}.
@@ -0,0 +1,222 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.mapping;
+
+import java.util.List;
+
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * The rows fetched by the executions of a statement, from which the fetch size of the next execution is chosen when
+ * the {@code adaptiveFetchSize} setting is enabled.
+ * <p>
+ * The expected number of rows is a moving average of the rows fetched from each result set, weighted towards the
+ * recent executions. The fetch size is one more than that, so a result set of the expected size is fetched in a single
+ * round trip, bounded by the minimum and maximum adaptive fetch sizes. The fetch size is also limited so that one fetch
+ * of rows of the observed width takes no more than {@link #MAX_FETCH_BYTES} of driver buffer, and to the rows needed by
+ * the row bounds of the execution.
+ * </p>
+ * <p>
+ * The row width is an estimate from the JDBC types of the columns. Instances are thread safe.
+ * </p>
+ *
+ * @since 3.5.14
+ */
+public class AdaptiveFetchSize {
+
+  /**
+   * The approximate maximum size of the rows fetched in a single round trip.
+   */
+  public static final int MAX_FETCH_BYTES = 4 * 1024 * 1024;
+
+  /**
+   * The weight of the latest result set in the average number of rows.
+   */
+  private static final double WEIGHT = 0.25;
+
+  private long resultSets;
+  private long totalRows;
+  private int maxRows;
+  private double averageRows;
+  private int rowWidth;
+  private int lastFetchSize;
+
+  /**
+   * Returns the fetch size for the next execution of the statement.
+   *
+   * @param defaultFetchSize
+   *          the fetch size to use before any rows have been recorded (can be {@code null})
+   * @param minFetchSize
+   *          the minimum fetch size
+   * @param maxFetchSize
+   *          the maximum fetch size
+   * @param rowBounds
+   *          the row bounds of the execution
+   *
+   * @return the fetch size
+   */
+  public synchronized int nextFetchSize(Integer defaultFetchSize, int minFetchSize, int maxFetchSize,
+      RowBounds rowBounds) {
+    long fetchSize;
+    if (resultSets == 0) {
+      fetchSize = defaultFetchSize == null ? minFetchSize : defaultFetchSize;
+    } else {
+      fetchSize = (long) Math.ceil(averageRows) + 1;
+      if (rowWidth > 0) {
+        fetchSize = Math.min(fetchSize, MAX_FETCH_BYTES / rowWidth);
+      }
+    }
+    fetchSize = Math.max(minFetchSize, Math.min(maxFetchSize, fetchSize));
+    if (rowBounds != null && rowBounds.getLimit() != RowBounds.NO_ROW_LIMIT) {
+      fetchSize = Math.min(fetchSize, (long) rowBounds.getOffset() + rowBounds.getLimit());
+    }
+    lastFetchSize = (int) Math.max(1, fetchSize);
+    return lastFetchSize;
+  }
+
+  /**
+   * Records the rows fetched from a result set of the statement.
+   *
+   * @param rows
+   *          the number of rows fetched, including the rows skipped for the row bounds
+   * @param jdbcTypes
+   *          the JDBC types of the columns of the result set, used to estimate the row width
+   */
+  public void record(int rows, List<JdbcType> jdbcTypes) {
+    int width = estimateRowWidth(jdbcTypes);
+    synchronized (this) {
+      averageRows = resultSets == 0 ? rows : averageRows + WEIGHT * (rows - averageRows);
+      resultSets++;
+      totalRows += rows;
+      maxRows = Math.max(maxRows, rows);
+      rowWidth = width;
+    }
+  }
+
+  /**
+   * Returns the number of result sets recorded.
+   *
+   * @return the number of result sets
+   */
+  public synchronized long getResultSets() {
+    return resultSets;
+  }
+
+  /**
+   * Returns the total number of rows fetched from the recorded result sets.
+   *
+   * @return the total number of rows
+   */
+  public synchronized long getTotalRows() {
+    return totalRows;
+  }
+
+  /**
+   * Returns the largest number of rows fetched from a recorded result set.
+   *
+   * @return the largest number of rows
+   */
+  public synchronized int getMaxRows() {
+    return maxRows;
+  }
+
+  /**
+   * Returns the moving average of the rows fetched from the recorded result sets.
+   *
+   * @return the expected number of rows
+   */
+  public synchronized double getAverageRows() {
+    return averageRows;
+  }
+
+  /**
+   * Returns the estimated width of the rows of the last recorded result set in bytes.
+   *
+   * @return the row width
+   */
+  public synchronized int getRowWidth() {
+    return rowWidth;
+  }
+
+  /**
+   * Returns the fetch size chosen for the last execution.
+   *
+   * @return the fetch size, or {@code 0} if none has been chosen yet
+   */
+  public synchronized int getLastFetchSize() {
+    return lastFetchSize;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "AdaptiveFetchSize [resultSets=" + resultSets + ", totalRows=" + totalRows + ", maxRows=" + maxRows
+        + ", averageRows=" + averageRows + ", rowWidth=" + rowWidth + ", lastFetchSize=" + lastFetchSize + "]";
+  }
+
+  static int estimateRowWidth(List<JdbcType> jdbcTypes) {
+    int width = 0;
+    for (JdbcType jdbcType : jdbcTypes) {
+      width += estimateColumnWidth(jdbcType);
+    }
+    return width;
+  }
+
+  private static int estimateColumnWidth(JdbcType jdbcType) {
+    if (jdbcType == null) {
+      return 16;
+    }
+    switch (jdbcType) {
+      case BIT:
+      case BOOLEAN:
+      case TINYINT:
+        return 1;
+      case SMALLINT:
+        return 2;
+      case INTEGER:
+      case REAL:
+        return 4;
+      case BIGINT:
+      case FLOAT:
+      case DOUBLE:
+      case DATE:
+      case TIME:
+        return 8;
+      case TIMESTAMP:
+      case TIME_WITH_TIMEZONE:
+      case TIMESTAMP_WITH_TIMEZONE:
+        return 12;
+      case CHAR:
+      case VARCHAR:
+      case NCHAR:
+      case NVARCHAR:
+      case BINARY:
+      case VARBINARY:
+        return 32;
+      case LONGVARCHAR:
+      case LONGNVARCHAR:
+      case LONGVARBINARY:
+      case CLOB:
+      case NCLOB:
+      case BLOB:
+      case SQLXML:
+        return 256;
+      default:
+        return 16;
+    }
+  }
+
+}
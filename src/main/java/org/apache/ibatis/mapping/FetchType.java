@@ -24,6 +24,20 @@ public enum FetchType {
 
   EAGER,
 
-  DEFAULT
+  DEFAULT,
+
+  /**
+   * Runs the nested query once for the keys of all the rows of the result set.
+   *
+   * @since 3.5.14
+   */
+  BATCH,
+
+  /**
+   * Loads the nested query lazily, once for the keys of all the rows of the result set that have not been loaded yet.
+   *
+   * @since 3.5.14
+   */
+  LAZY_BATCH
 
 }
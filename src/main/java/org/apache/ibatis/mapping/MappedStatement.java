@@ -57,6 +57,7 @@ public final class MappedStatement {
   private LanguageDriver lang;
   private String[] resultSets;
   private boolean dirtySelect;
+  private final AdaptiveFetchSize adaptiveFetchSize = new AdaptiveFetchSize();
 
   MappedStatement() {
     // constructor disabled
@@ -304,6 +305,18 @@ public final class MappedStatement {
     return dirtySelect;
   }
 
+  /**
+   * Gets the rows fetched by the executions of this statement, recorded when the {@code adaptiveFetchSize} setting is
+   * enabled.
+   *
+   * @return the adaptive fetch size of this statement
+   *
+   * @since 3.5.14
+   */
+  public AdaptiveFetchSize getAdaptiveFetchSize() {
+    return adaptiveFetchSize;
+  }
+
   /**
    * Gets the resul sets.
    *
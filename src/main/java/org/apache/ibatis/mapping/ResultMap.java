@@ -28,6 +28,7 @@ import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
+import org.apache.ibatis.reflection.MetaClass;
 import org.apache.ibatis.reflection.ParamNameUtil;
 import org.apache.ibatis.session.Configuration;
 
@@ -48,6 +49,8 @@ public class ResultMap {
   private Discriminator discriminator;
   private boolean hasNestedResultMaps;
   private boolean hasNestedQueries;
+  private boolean hasLazyNestedQueries;
+  private boolean defaultInstantiable;
   private Boolean autoMapping;
 
   private ResultMap() {
@@ -116,6 +119,8 @@ public class ResultMap {
           }
         } else {
           resultMap.propertyResultMappings.add(resultMapping);
+          resultMap.hasLazyNestedQueries = resultMap.hasLazyNestedQueries
+              || resultMapping.getNestedQueryId() != null && resultMapping.isLazy();
         }
         if (resultMapping.getFlags().contains(ResultFlag.ID)) {
           resultMap.idResultMappings.add(resultMapping);
@@ -137,6 +142,8 @@ public class ResultMap {
           return paramIdx1 - paramIdx2;
         });
       }
+      resultMap.defaultInstantiable = resultMap.type != null && (resultMap.type.isInterface()
+          || MetaClass.forClass(resultMap.type, resultMap.configuration.getReflectorFactory()).hasDefaultConstructor());
       // lock down collections
       resultMap.resultMappings = Collections.unmodifiableList(resultMap.resultMappings);
       resultMap.idResultMappings = Collections.unmodifiableList(resultMap.idResultMappings);
@@ -218,6 +225,29 @@ public class ResultMap {
     return hasNestedQueries;
   }
 
+  /**
+   * Returns whether any of the property mappings is a nested query that is loaded lazily.
+   *
+   * @return {@code true} if the result objects need a lazy loading proxy
+   *
+   * @since 3.5.14
+   */
+  public boolean hasLazyNestedQueries() {
+    return hasLazyNestedQueries;
+  }
+
+  /**
+   * Returns whether the result type is an interface or has a default constructor, i.e. whether the object factory can
+   * create the result object without constructor arguments.
+   *
+   * @return {@code true} if the result type can be instantiated without constructor arguments
+   *
+   * @since 3.5.14
+   */
+  public boolean isDefaultInstantiable() {
+    return defaultInstantiable;
+  }
+
   public Class<?> getType() {
     return type;
   }
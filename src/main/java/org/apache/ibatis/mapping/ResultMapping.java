@@ -45,6 +45,7 @@ public class ResultMapping {
   private String resultSet;
   private String foreignColumn;
   private boolean lazy;
+  private boolean batch;
 
   ResultMapping() {
   }
@@ -132,6 +133,21 @@ public class ResultMapping {
       return this;
     }
 
+    /**
+     * Sets whether the nested query is run once for the keys of all the rows of the result set.
+     *
+     * @param batch
+     *          whether the nested query is batched
+     *
+     * @return this builder
+     *
+     * @since 3.5.14
+     */
+    public Builder batch(boolean batch) {
+      resultMapping.batch = batch;
+      return this;
+    }
+
     public ResultMapping build() {
       // lock down collections
       resultMapping.flags = Collections.unmodifiableList(resultMapping.flags);
@@ -255,6 +271,21 @@ public class ResultMapping {
     this.lazy = lazy;
   }
 
+  /**
+   * Returns whether the nested query is run once for the keys of all the rows of the result set (fetchType="batch").
+   *
+   * @return whether the nested query is batched
+   *
+   * @since 3.5.14
+   */
+  public boolean isBatch() {
+    return batch;
+  }
+
+  public void setBatch(boolean batch) {
+    this.batch = batch;
+  }
+
   public boolean isSimple() {
     return this.nestedResultMapId == null && this.nestedQueryId == null && this.resultSet == null;
   }
@@ -303,6 +334,7 @@ public class ResultMapping {
     sb.append(", resultSet='").append(resultSet).append('\'');
     sb.append(", foreignColumn='").append(foreignColumn).append('\'');
     sb.append(", lazy=").append(lazy);
+    sb.append(", batch=").append(batch);
     sb.append('}');
     return sb.toString();
   }
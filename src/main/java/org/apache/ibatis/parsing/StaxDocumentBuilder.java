@@ -0,0 +1,141 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.parsing;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+/**
+ * Builds a DOM from the StAX events of an XML document.
+ * <p>
+ * The document is the same as the one built by {@link XPathParser} without validation, but it is built without a SAX
+ * parser and a DTD, which makes it noticeably faster and smaller. The DTD is never loaded, so the document is not
+ * validated and any external entity is replaced by an empty text. Comments are dropped.
+ *
+ * @since 3.5.14
+ */
+public class StaxDocumentBuilder {
+
+  private static final String REPORT_CDATA_EVENT = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+  private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+  private static final DOMImplementation DOM_IMPLEMENTATION = createDomImplementation();
+
+  private StaxDocumentBuilder() {
+    // Prevent Instantiation
+  }
+
+  public static Document parse(InputStream inputStream) {
+    XMLStreamReader reader = null;
+    try {
+      reader = INPUT_FACTORY.createXMLStreamReader(inputStream);
+      Document document = DOM_IMPLEMENTATION.createDocument(null, null, null);
+      Node parent = document;
+      while (reader.hasNext()) {
+        switch (reader.next()) {
+          case XMLStreamConstants.START_ELEMENT:
+            Element element = document.createElement(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+              element.setAttribute(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                  reader.getAttributeValue(i));
+            }
+            parent.appendChild(element);
+            parent = element;
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            parent = parent.getParentNode();
+            break;
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.SPACE:
+            if (parent != document) {
+              appendText(document, parent, reader.getText());
+            }
+            break;
+          case XMLStreamConstants.CDATA:
+            parent.appendChild(document.createCDATASection(reader.getText()));
+            break;
+          case XMLStreamConstants.PROCESSING_INSTRUCTION:
+            parent.appendChild(document.createProcessingInstruction(reader.getPITarget(), reader.getPIData()));
+            break;
+          default:
+            break;
+        }
+      }
+      return document;
+    } catch (XMLStreamException e) {
+      throw new BuilderException("Error creating document instance.  Cause: " + e, e);
+    } finally {
+      if (reader != null) {
+        try {
+          reader.close();
+        } catch (XMLStreamException e) {
+          // ignore
+        }
+      }
+    }
+  }
+
+  private static void appendText(Document document, Node parent, String text) {
+    // the reader may split a text into several events while the DOM has a single node for it
+    Node last = parent.getLastChild();
+    if (last != null && last.getNodeType() == Node.TEXT_NODE) {
+      ((Text) last).appendData(text);
+    } else {
+      parent.appendChild(document.createTextNode(text));
+    }
+  }
+
+  private static String qualifiedName(String prefix, String localName) {
+    return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+  }
+
+  private static XMLInputFactory createInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+    factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+    if (factory.isPropertySupported(REPORT_CDATA_EVENT)) {
+      // the JDK implementation reports CDATA sections as characters by default
+      factory.setProperty(REPORT_CDATA_EVENT, true);
+    }
+    factory.setXMLResolver((publicId, systemId, baseUri, namespace) -> new ByteArrayInputStream(new byte[0]));
+    return factory;
+  }
+
+  private static DOMImplementation createDomImplementation() {
+    try {
+      return DocumentBuilderFactory.newInstance().newDocumentBuilder().getDOMImplementation();
+    } catch (ParserConfigurationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+}
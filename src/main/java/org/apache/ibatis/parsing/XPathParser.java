@@ -141,7 +141,13 @@ public class XPathParser {
   }
 
   public String evalString(Object root, String expression) {
-    String result = (String) evaluate(expression, root, XPathConstants.STRING);
+    List<Node> nodes = selectElements(root, expression);
+    String result;
+    if (nodes != null) {
+      result = nodes.isEmpty() ? "" : nodes.get(0).getTextContent();
+    } else {
+      result = (String) evaluate(expression, root, XPathConstants.STRING);
+    }
     return PropertyParser.parse(result, variables);
   }
 
@@ -150,6 +156,10 @@ public class XPathParser {
   }
 
   public Boolean evalBoolean(Object root, String expression) {
+    List<Node> nodes = selectElements(root, expression);
+    if (nodes != null) {
+      return !nodes.isEmpty();
+    }
     return (Boolean) evaluate(expression, root, XPathConstants.BOOLEAN);
   }
 
@@ -199,6 +209,13 @@ public class XPathParser {
 
   public List<XNode> evalNodes(Object root, String expression) {
     List<XNode> xnodes = new ArrayList<>();
+    List<Node> elements = selectElements(root, expression);
+    if (elements != null) {
+      for (Node element : elements) {
+        xnodes.add(new XNode(this, element, variables));
+      }
+      return xnodes;
+    }
     NodeList nodes = (NodeList) evaluate(expression, root, XPathConstants.NODESET);
     for (int i = 0; i < nodes.getLength(); i++) {
       xnodes.add(new XNode(this, nodes.item(i), variables));
@@ -211,7 +228,13 @@ public class XPathParser {
   }
 
   public XNode evalNode(Object root, String expression) {
-    Node node = (Node) evaluate(expression, root, XPathConstants.NODE);
+    List<Node> elements = selectElements(root, expression);
+    Node node;
+    if (elements != null) {
+      node = elements.isEmpty() ? null : elements.get(0);
+    } else {
+      node = (Node) evaluate(expression, root, XPathConstants.NODE);
+    }
     if (node == null) {
       return null;
     }
@@ -220,12 +243,85 @@ public class XPathParser {
 
   private Object evaluate(String expression, Object root, QName returnType) {
     try {
+      if (xpath == null) {
+        xpath = XPathFactory.newInstance().newXPath();
+      }
       return xpath.evaluate(expression, root, returnType);
     } catch (Exception e) {
       throw new BuilderException("Error evaluating XPath.  Cause: " + e, e);
     }
   }
 
+  /**
+   * Selects the elements for the simple location paths the builders use (e.g. {@code /mapper/resultMap},
+   * {@code cache-ref}, {@code *} or {@code select|insert|update|delete}) by walking the DOM, which is much cheaper than
+   * compiling and evaluating an XPath expression.
+   *
+   * @return the elements in document order, or {@code null} if the expression requires the XPath evaluation
+   */
+  private static List<Node> selectElements(Object root, String expression) {
+    if (!(root instanceof Node)) {
+      return null;
+    }
+    boolean absolute = expression.startsWith("/");
+    String[] steps = (absolute ? expression.substring(1) : expression).split("/", -1);
+    String[][] names = new String[steps.length][];
+    for (int i = 0; i < steps.length; i++) {
+      names[i] = steps[i].split("\\|", -1);
+      if (names[i].length > 1 && (absolute || steps.length > 1)) {
+        return null;
+      }
+      for (String name : names[i]) {
+        if (!isNameTest(name)) {
+          return null;
+        }
+      }
+    }
+    Node context = (Node) root;
+    if (absolute && context.getNodeType() != Node.DOCUMENT_NODE) {
+      context = context.getOwnerDocument();
+    }
+    List<Node> current = new ArrayList<>();
+    current.add(context);
+    for (String[] step : names) {
+      List<Node> next = new ArrayList<>();
+      for (Node node : current) {
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+          if (child.getNodeType() == Node.ELEMENT_NODE && matches(step, child.getNodeName())) {
+            next.add(child);
+          }
+        }
+      }
+      current = next;
+    }
+    return current;
+  }
+
+  private static boolean isNameTest(String name) {
+    if ("*".equals(name)) {
+      return true;
+    }
+    if (name.isEmpty() || !(Character.isLetter(name.charAt(0)) || name.charAt(0) == '_')) {
+      return false;
+    }
+    for (int i = 1; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (!(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean matches(String[] names, String nodeName) {
+    for (String name : names) {
+      if ("*".equals(name) || name.equals(nodeName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private Document createDocument(InputSource inputSource) {
     // important: this must only be called AFTER common constructor
     try {
@@ -267,8 +363,6 @@ public class XPathParser {
     this.validation = validation;
     this.entityResolver = entityResolver;
     this.variables = variables;
-    XPathFactory factory = XPathFactory.newInstance();
-    this.xpath = factory.newXPath();
   }
 
 }
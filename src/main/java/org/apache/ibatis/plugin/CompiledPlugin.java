@@ -0,0 +1,223 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.plugin;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.util.MapUtil;
+
+/**
+ * Applies several interceptors that rely on the default {@link Interceptor#plugin(Object)} with a single proxy.
+ * <p>
+ * Wrapping a target with {@link Plugin#wrap(Object, Interceptor)} once per interceptor creates a proxy per interceptor
+ * and resolves the signatures on every call. This class resolves, once per target class, which interceptors apply to
+ * which method and dispatches the calls of a single proxy along that chain. Methods no interceptor declares are
+ * invoked on the target directly.
+ * </p>
+ * <p>
+ * The behavior is the same as the nested proxies: {@link Invocation#getTarget()} returns the remaining (inner) part
+ * of the chain and {@link Invocation#proceed()} invokes the next interceptor.
+ * </p>
+ *
+ * @since 3.5.14
+ */
+class CompiledPlugin {
+
+  private static final Dispatcher NO_DISPATCHER = new Dispatcher(new Class<?>[0], Collections.emptyMap(), 0);
+
+  /**
+   * Interceptors in the order they are applied, i.e. the last one is the outermost.
+   */
+  private final List<Interceptor> interceptors;
+
+  private final Map<Class<?>, Dispatcher> dispatchers = new ConcurrentHashMap<>();
+
+  CompiledPlugin(List<Interceptor> interceptors) {
+    this.interceptors = new ArrayList<>(interceptors);
+  }
+
+  Object wrap(Object target) {
+    Dispatcher dispatcher = MapUtil.computeIfAbsent(dispatchers, target.getClass(), this::resolveDispatcher);
+    if (dispatcher == NO_DISPATCHER) {
+      return target;
+    }
+    return dispatcher.newProxy(target, 0);
+  }
+
+  private Dispatcher resolveDispatcher(Class<?> type) {
+    Set<Class<?>> interfaces = new LinkedHashSet<>();
+    // the outermost interceptor comes first
+    List<Interceptor> applied = new ArrayList<>();
+    List<Map<Class<?>, Set<Method>>> signatureMaps = new ArrayList<>();
+    for (int i = interceptors.size() - 1; i >= 0; i--) {
+      Interceptor interceptor = interceptors.get(i);
+      Map<Class<?>, Set<Method>> signatureMap = Plugin.getSignatureMap(interceptor);
+      Class<?>[] interceptorInterfaces = Plugin.getAllInterfaces(type, signatureMap);
+      if (interceptorInterfaces.length > 0) {
+        Collections.addAll(interfaces, interceptorInterfaces);
+        applied.add(interceptor);
+        signatureMaps.add(signatureMap);
+      }
+    }
+    if (interfaces.isEmpty()) {
+      return NO_DISPATCHER;
+    }
+    Map<Method, Chain> chains = new HashMap<>();
+    for (Class<?> interfaceType : interfaces) {
+      for (Method method : interfaceType.getMethods()) {
+        if (chains.containsKey(method)) {
+          continue;
+        }
+        List<Interceptor> methodInterceptors = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < applied.size(); i++) {
+          Set<Method> methods = signatureMaps.get(i).get(method.getDeclaringClass());
+          if (methods != null && methods.contains(method)) {
+            methodInterceptors.add(applied.get(i));
+            positions.add(i);
+          }
+        }
+        if (!methodInterceptors.isEmpty()) {
+          chains.put(method, new Chain(methodInterceptors, positions));
+        }
+      }
+    }
+    return new Dispatcher(interfaces.toArray(new Class<?>[0]), chains, applied.size());
+  }
+
+  /**
+   * The interceptors of a method, outermost first, along with their positions in the resolved chain.
+   */
+  private static class Chain {
+    private final Interceptor[] interceptors;
+    private final int[] positions;
+
+    Chain(List<Interceptor> interceptors, List<Integer> positions) {
+      this.interceptors = interceptors.toArray(new Interceptor[0]);
+      this.positions = positions.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    int indexFrom(int position) {
+      for (int i = 0; i < positions.length; i++) {
+        if (positions[i] >= position) {
+          return i;
+        }
+      }
+      return positions.length;
+    }
+  }
+
+  private static class Dispatcher {
+    private final Class<?>[] interfaces;
+    private final Map<Method, Chain> chains;
+    private final int size;
+
+    Dispatcher(Class<?>[] interfaces, Map<Method, Chain> chains, int size) {
+      this.interfaces = interfaces;
+      this.chains = chains;
+      this.size = size;
+    }
+
+    Object newProxy(Object target, int position) {
+      return Proxy.newProxyInstance(target.getClass().getClassLoader(), interfaces,
+          new Handler(target, this, position));
+    }
+  }
+
+  private static class Handler implements InvocationHandler {
+    private final Object target;
+    private final Dispatcher dispatcher;
+    private final int position;
+
+    Handler(Object target, Dispatcher dispatcher, int position) {
+      this.target = target;
+      this.dispatcher = dispatcher;
+      this.position = position;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+      try {
+        Chain chain = dispatcher.chains.get(method);
+        if (chain != null) {
+          int index = position == 0 ? 0 : chain.indexFrom(position);
+          if (index < chain.interceptors.length) {
+            return chain.interceptors[index].intercept(new ChainInvocation(this, chain, index, method, args));
+          }
+        }
+        return method.invoke(target, args);
+      } catch (Exception e) {
+        throw ExceptionUtil.unwrapThrowable(e);
+      }
+    }
+  }
+
+  private static class ChainInvocation extends Invocation {
+    private final Handler handler;
+    private final Chain chain;
+    private final int index;
+    private Object innerTarget;
+
+    ChainInvocation(Handler handler, Chain chain, int index, Method method, Object[] args) {
+      super(handler.target, method, args);
+      this.handler = handler;
+      this.chain = chain;
+      this.index = index;
+    }
+
+    private boolean isInnermost() {
+      return index + 1 >= chain.interceptors.length;
+    }
+
+    @Override
+    public Object getTarget() {
+      int innerPosition = chain.positions[index] + 1;
+      if (innerPosition >= handler.dispatcher.size) {
+        return handler.target;
+      }
+      if (innerTarget == null) {
+        innerTarget = handler.dispatcher.newProxy(handler.target, innerPosition);
+      }
+      return innerTarget;
+    }
+
+    @Override
+    public Object proceed() throws InvocationTargetException, IllegalAccessException {
+      if (isInnermost()) {
+        return super.proceed();
+      }
+      try {
+        return chain.interceptors[index + 1]
+            .intercept(new ChainInvocation(handler, chain, index + 1, getMethod(), getArgs()));
+      } catch (Throwable t) {
+        throw new InvocationTargetException(t);
+      }
+    }
+  }
+
+}
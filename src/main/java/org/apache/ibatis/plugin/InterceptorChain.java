@@ -1,5 +1,5 @@
 /*
- *    Copyright 2009-2022 the original author or authors.
+ *    Copyright 2009-2023 the original author or authors.
  *
  *    Licensed under the Apache License, Version 2.0 (the "License");
  *    you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.apache.ibatis.plugin;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 /**
  * @author Clinton Begin
@@ -26,15 +27,50 @@ public class InterceptorChain {
 
   private final List<Interceptor> interceptors = new ArrayList<>();
 
+  /**
+   * The steps applied by {@link #pluginAll(Object)}. Consecutive interceptors that do not override
+   * {@link Interceptor#plugin(Object)} are combined into a single {@link CompiledPlugin}.
+   */
+  private volatile List<UnaryOperator<Object>> steps = Collections.emptyList();
+
   public Object pluginAll(Object target) {
-    for (Interceptor interceptor : interceptors) {
-      target = interceptor.plugin(target);
+    for (UnaryOperator<Object> step : steps) {
+      target = step.apply(target);
     }
     return target;
   }
 
-  public void addInterceptor(Interceptor interceptor) {
+  public synchronized void addInterceptor(Interceptor interceptor) {
     interceptors.add(interceptor);
+    steps = compile(interceptors);
+  }
+
+  private static List<UnaryOperator<Object>> compile(List<Interceptor> interceptors) {
+    List<UnaryOperator<Object>> steps = new ArrayList<>();
+    List<Interceptor> compilable = new ArrayList<>();
+    for (Interceptor interceptor : interceptors) {
+      if (usesDefaultPlugin(interceptor)) {
+        compilable.add(interceptor);
+        continue;
+      }
+      if (!compilable.isEmpty()) {
+        steps.add(new CompiledPlugin(compilable)::wrap);
+        compilable.clear();
+      }
+      steps.add(interceptor::plugin);
+    }
+    if (!compilable.isEmpty()) {
+      steps.add(new CompiledPlugin(compilable)::wrap);
+    }
+    return Collections.unmodifiableList(steps);
+  }
+
+  private static boolean usesDefaultPlugin(Interceptor interceptor) {
+    try {
+      return Interceptor.class.equals(interceptor.getClass().getMethod("plugin", Object.class).getDeclaringClass());
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
   }
 
   public List<Interceptor> getInterceptors() {
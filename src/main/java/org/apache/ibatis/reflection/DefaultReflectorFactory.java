@@ -15,14 +15,18 @@
  */
 package org.apache.ibatis.reflection;
 
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ObjLongConsumer;
 
 import org.apache.ibatis.util.MapUtil;
 
 public class DefaultReflectorFactory implements ReflectorFactory {
   private boolean classCacheEnabled = true;
   private final ConcurrentMap<Class<?>, Reflector> reflectorMap = new ConcurrentHashMap<>();
+  private volatile ObjLongConsumer<Class<?>> resolutionListener;
 
   public DefaultReflectorFactory() {
   }
@@ -41,9 +45,56 @@ public class DefaultReflectorFactory implements ReflectorFactory {
   public Reflector findForClass(Class<?> type) {
     if (classCacheEnabled) {
       // synchronized (type) removed see issue #461
-      return MapUtil.computeIfAbsent(reflectorMap, type, Reflector::new);
+      return MapUtil.computeIfAbsent(reflectorMap, type, this::createReflector);
     }
     return new Reflector(type);
   }
 
+  /**
+   * Sets the listener notified when the properties of a cached reflector have been resolved, e.g. to time them.
+   *
+   * @param resolutionListener
+   *          the listener, called with the class and the resolution time in nanoseconds, or {@code null} for none
+   *
+   * @since 3.5.14
+   */
+  public void setResolutionListener(ObjLongConsumer<Class<?>> resolutionListener) {
+    this.resolutionListener = resolutionListener;
+  }
+
+  private Reflector createReflector(Class<?> type) {
+    return new Reflector(type, resolutionListener);
+  }
+
+  /**
+   * Creates the reflectors of the given types and resolves their properties in parallel on the common fork-join pool.
+   * This can be used to move the reflection cost of known domain classes out of the (sequential) configuration build.
+   *
+   * @param types
+   *          the types to warm up
+   *
+   * @since 3.5.14
+   */
+  public void warmUp(Collection<Class<?>> types) {
+    warmUp(types, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates the reflectors of the given types and resolves their properties in parallel on the given fork-join pool.
+   * Nothing is done when the class cache is disabled.
+   *
+   * @param types
+   *          the types to warm up
+   * @param pool
+   *          the pool to run on
+   *
+   * @since 3.5.14
+   */
+  public void warmUp(Collection<Class<?>> types, ForkJoinPool pool) {
+    if (!classCacheEnabled) {
+      return;
+    }
+    pool.submit(() -> types.parallelStream().forEach(type -> findForClass(type).resolveProperties())).join();
+  }
+
 }
@@ -0,0 +1,249 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+
+/**
+ * A {@link ParamMap} backed by the mapper method arguments and a name to index table that is shared by all invocations
+ * of the method.
+ * <p>
+ * Lookups by name are answered directly from the argument array. The entries are copied into the underlying hash map
+ * only when the map is modified or viewed as a whole (e.g. {@link #entrySet()}), so the common case does not allocate
+ * per parameter.
+ * </p>
+ *
+ * @since 3.5.14
+ */
+public class NamedParamMap<V> extends ParamMap<V> {
+
+  private static final long serialVersionUID = 3486212409871622305L;
+
+  private final Map<String, Integer> indexes;
+
+  private Object[] args;
+
+  /**
+   * Instantiates a new named param map.
+   *
+   * @param indexes
+   *          the table from parameter name to argument index (must not be modified afterwards)
+   * @param args
+   *          the method arguments
+   */
+  public NamedParamMap(Map<String, Integer> indexes, Object[] args) {
+    this.indexes = indexes;
+    this.args = args;
+  }
+
+  private boolean isMaterialized() {
+    return args == null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void materialize() {
+    if (isMaterialized()) {
+      return;
+    }
+    final Object[] values = args;
+    args = null;
+    for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+      super.put(entry.getKey(), (V) values[entry.getValue()]);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public V get(Object key) {
+    if (isMaterialized()) {
+      return super.get(key);
+    }
+    Integer index = indexes.get(key);
+    if (index == null) {
+      throw new BindingException("Parameter '" + key + "' not found. Available parameters are " + indexes.keySet());
+    }
+    return (V) args[index];
+  }
+
+  @Override
+  public V getOrDefault(Object key, V defaultValue) {
+    if (isMaterialized()) {
+      return super.getOrDefault(key, defaultValue);
+    }
+    return containsKey(key) ? get(key) : defaultValue;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return isMaterialized() ? super.containsKey(key) : indexes.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return isMaterialized() ? super.size() : indexes.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    materialize();
+    return super.containsValue(value);
+  }
+
+  @Override
+  public V put(String key, V value) {
+    materialize();
+    return super.put(key, value);
+  }
+
+  @Override
+  public void putAll(Map<? extends String, ? extends V> m) {
+    materialize();
+    super.putAll(m);
+  }
+
+  @Override
+  public V remove(Object key) {
+    materialize();
+    return super.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    args = null;
+    super.clear();
+  }
+
+  @Override
+  public Set<String> keySet() {
+    materialize();
+    return super.keySet();
+  }
+
+  @Override
+  public Collection<V> values() {
+    materialize();
+    return super.values();
+  }
+
+  @Override
+  public Set<Map.Entry<String, V>> entrySet() {
+    materialize();
+    return super.entrySet();
+  }
+
+  @Override
+  public V putIfAbsent(String key, V value) {
+    materialize();
+    return super.putIfAbsent(key, value);
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    materialize();
+    return super.remove(key, value);
+  }
+
+  @Override
+  public boolean replace(String key, V oldValue, V newValue) {
+    materialize();
+    return super.replace(key, oldValue, newValue);
+  }
+
+  @Override
+  public V replace(String key, V value) {
+    materialize();
+    return super.replace(key, value);
+  }
+
+  @Override
+  public V computeIfAbsent(String key, Function<? super String, ? extends V> mappingFunction) {
+    materialize();
+    return super.computeIfAbsent(key, mappingFunction);
+  }
+
+  @Override
+  public V computeIfPresent(String key, BiFunction<? super String, ? super V, ? extends V> remappingFunction) {
+    materialize();
+    return super.computeIfPresent(key, remappingFunction);
+  }
+
+  @Override
+  public V compute(String key, BiFunction<? super String, ? super V, ? extends V> remappingFunction) {
+    materialize();
+    return super.compute(key, remappingFunction);
+  }
+
+  @Override
+  public V merge(String key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+    materialize();
+    return super.merge(key, value, remappingFunction);
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super String, ? super V> action) {
+    materialize();
+    super.forEach(action);
+  }
+
+  @Override
+  public void replaceAll(BiFunction<? super String, ? super V, ? extends V> function) {
+    materialize();
+    super.replaceAll(function);
+  }
+
+  @Override
+  public Object clone() {
+    materialize();
+    return super.clone();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    materialize();
+    return super.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    materialize();
+    return super.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    materialize();
+    return super.toString();
+  }
+
+  private Object writeReplace() {
+    materialize();
+    return this;
+  }
+
+}
@@ -19,6 +19,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -52,6 +53,13 @@ public class ParamNameResolver {
    */
   private final SortedMap<Integer, String> names;
 
+  /**
+   * The key is the parameter name (including the generic names) and the value is the index of the corresponding
+   * method argument. It is computed once and shared by the {@link NamedParamMap}s created by
+   * {@link #getNamedParams(Object[])}.
+   */
+  private final Map<String, Integer> nameIndexes;
+
   private boolean hasParamAnnotation;
 
   public ParamNameResolver(Configuration config, Method method) {
@@ -88,6 +96,23 @@ public class ParamNameResolver {
       map.put(paramIndex, name);
     }
     names = Collections.unmodifiableSortedMap(map);
+    nameIndexes = Collections.unmodifiableMap(resolveNameIndexes(map));
+  }
+
+  private static Map<String, Integer> resolveNameIndexes(SortedMap<Integer, String> names) {
+    final Map<String, Integer> indexes = new HashMap<>();
+    int i = 0;
+    for (Map.Entry<Integer, String> entry : names.entrySet()) {
+      indexes.put(entry.getValue(), entry.getKey());
+      // add generic param names (param1, param2, ...)
+      final String genericParamName = GENERIC_NAME_PREFIX + (i + 1);
+      // ensure not to overwrite parameter named with @Param
+      if (!names.containsValue(genericParamName)) {
+        indexes.put(genericParamName, entry.getKey());
+      }
+      i++;
+    }
+    return indexes;
   }
 
   private String getActualParamName(Method method, int paramIndex) {
@@ -127,19 +152,7 @@ public class ParamNameResolver {
       Object value = args[names.firstKey()];
       return wrapToMapIfCollection(value, useActualParamName ? names.get(names.firstKey()) : null);
     } else {
-      final Map<String, Object> param = new ParamMap<>();
-      int i = 0;
-      for (Map.Entry<Integer, String> entry : names.entrySet()) {
-        param.put(entry.getValue(), args[entry.getKey()]);
-        // add generic param names (param1, param2, ...)
-        final String genericParamName = GENERIC_NAME_PREFIX + (i + 1);
-        // ensure not to overwrite parameter named with @Param
-        if (!names.containsValue(genericParamName)) {
-          param.put(genericParamName, args[entry.getKey()]);
-        }
-        i++;
-      }
-      return param;
+      return new NamedParamMap<>(nameIndexes, args);
     }
   }
 
@@ -36,6 +36,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.ObjLongConsumer;
 
 import org.apache.ibatis.reflection.invoker.AmbiguousMethodInvoker;
 import org.apache.ibatis.reflection.invoker.GetFieldInvoker;
@@ -55,8 +56,8 @@ public class Reflector {
 
   private static final MethodHandle isRecordMethodHandle = getIsRecordMethodHandle();
   private final Class<?> type;
-  private final String[] readablePropertyNames;
-  private final String[] writablePropertyNames;
+  private String[] readablePropertyNames;
+  private String[] writablePropertyNames;
   private final Map<String, Invoker> setMethods = new HashMap<>();
   private final Map<String, Invoker> getMethods = new HashMap<>();
   private final Map<String, Class<?>> setTypes = new HashMap<>();
@@ -65,16 +66,63 @@ public class Reflector {
 
   private final Map<String, String> caseInsensitivePropertyMap = new HashMap<>();
 
+  /**
+   * The properties are resolved on first use because scanning the methods and fields of a class is far more expensive
+   * than the type and default constructor lookups that are often all a caller needs.
+   */
+  private volatile boolean propertiesResolved;
+  private final ObjLongConsumer<Class<?>> resolutionListener;
+
   public Reflector(Class<?> clazz) {
+    this(clazz, null);
+  }
+
+  /**
+   * Creates a reflector that notifies a listener when its properties have been resolved.
+   *
+   * @param clazz
+   *          the class
+   * @param resolutionListener
+   *          the listener, called with the class and the resolution time in nanoseconds (can be {@code null})
+   *
+   * @since 3.5.14
+   */
+  Reflector(Class<?> clazz, ObjLongConsumer<Class<?>> resolutionListener) {
     type = clazz;
+    this.resolutionListener = resolutionListener;
     addDefaultConstructor(clazz);
-    Method[] classMethods = getClassMethods(clazz);
+  }
+
+  /**
+   * Resolves the properties of the class unless they have already been resolved.
+   *
+   * @since 3.5.14
+   */
+  void resolveProperties() {
+    if (!propertiesResolved) {
+      synchronized (this) {
+        if (!propertiesResolved) {
+          if (resolutionListener == null) {
+            addProperties();
+          } else {
+            long startNanos = System.nanoTime();
+            addProperties();
+            resolutionListener.accept(type, System.nanoTime() - startNanos);
+          }
+          propertiesResolved = true;
+        }
+      }
+    }
+  }
+
+  private void addProperties() {
+    Method[] classMethods = getClassMethods(type);
     if (isRecord(type)) {
       addRecordGetMethods(classMethods);
     } else {
       addGetMethods(classMethods);
       addSetMethods(classMethods);
-      addFields(clazz);
+      addFields(type);
     }
     readablePropertyNames = getMethods.keySet().toArray(new String[0]);
     writablePropertyNames = setMethods.keySet().toArray(new String[0]);
@@ -374,6 +422,7 @@ public class Reflector {
   }
 
   public Invoker getSetInvoker(String propertyName) {
+    resolveProperties();
     Invoker method = setMethods.get(propertyName);
     if (method == null) {
       throw new ReflectionException("There is no setter for property named '" + propertyName + "' in '" + type + "'");
@@ -382,6 +431,7 @@ public class Reflector {
   }
 
   public Invoker getGetInvoker(String propertyName) {
+    resolveProperties();
     Invoker method = getMethods.get(propertyName);
     if (method == null) {
       throw new ReflectionException("There is no getter for property named '" + propertyName + "' in '" + type + "'");
@@ -398,6 +448,7 @@ public class Reflector {
    * @return The Class of the property setter
    */
   public Class<?> getSetterType(String propertyName) {
+    resolveProperties();
     Class<?> clazz = setTypes.get(propertyName);
     if (clazz == null) {
       throw new ReflectionException("There is no setter for property named '" + propertyName + "' in '" + type + "'");
@@ -414,6 +465,7 @@ public class Reflector {
    * @return The Class of the property getter
    */
   public Class<?> getGetterType(String propertyName) {
+    resolveProperties();
     Class<?> clazz = getTypes.get(propertyName);
     if (clazz == null) {
       throw new ReflectionException("There is no getter for property named '" + propertyName + "' in '" + type + "'");
@@ -427,6 +479,7 @@ public class Reflector {
    * @return The array
    */
   public String[] getGetablePropertyNames() {
+    resolveProperties();
     return readablePropertyNames;
   }
 
@@ -436,6 +489,7 @@ public class Reflector {
    * @return The array
    */
   public String[] getSetablePropertyNames() {
+    resolveProperties();
     return writablePropertyNames;
   }
 
@@ -448,6 +502,7 @@ public class Reflector {
    * @return True if the object has a writable property by the name
    */
   public boolean hasSetter(String propertyName) {
+    resolveProperties();
     return setMethods.containsKey(propertyName);
   }
 
@@ -460,10 +515,12 @@ public class Reflector {
    * @return True if the object has a readable property by the name
    */
   public boolean hasGetter(String propertyName) {
+    resolveProperties();
     return getMethods.containsKey(propertyName);
   }
 
   public String findPropertyName(String name) {
+    resolveProperties();
     return caseInsensitivePropertyMap.get(name.toUpperCase(Locale.ENGLISH));
   }
 
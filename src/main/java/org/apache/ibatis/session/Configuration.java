@@ -15,24 +15,30 @@
  */
 package org.apache.ibatis.session;
 
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
+import java.util.function.Predicate;
 
 import org.apache.ibatis.binding.MapperRegistry;
+import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.builder.CacheRefResolver;
-import org.apache.ibatis.builder.IncompleteElementException;
 import org.apache.ibatis.builder.ResultMapResolver;
+import org.apache.ibatis.builder.annotation.MapperAnnotationBuilder;
 import org.apache.ibatis.builder.annotation.MethodResolver;
+import org.apache.ibatis.builder.xml.LazySqlSource;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
 import org.apache.ibatis.builder.xml.XMLStatementBuilder;
 import org.apache.ibatis.cache.Cache;
 import org.apache.ibatis.cache.decorators.FifoCache;
@@ -57,6 +63,7 @@ import org.apache.ibatis.executor.resultset.DefaultResultSetHandler;
 import org.apache.ibatis.executor.resultset.ResultSetHandler;
 import org.apache.ibatis.executor.statement.RoutingStatementHandler;
 import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.io.VFS;
 import org.apache.ibatis.logging.Log;
 import org.apache.ibatis.logging.LogFactory;
@@ -117,6 +124,10 @@ public class Configuration {
   protected boolean shrinkWhitespacesInSql;
   protected boolean nullableOnForEach;
   protected boolean argNameBasedConstructorAutoMapping;
+  protected boolean parallelMapperLoading;
+  protected boolean useStaxMapperParser;
+  protected boolean lazyStatementCompilation;
+  protected StartupReport startupReport;
 
   protected String logPrefix;
   protected Class<? extends Log> logImpl;
@@ -128,6 +139,12 @@ public class Configuration {
       Arrays.asList("equals", "clone", "hashCode", "toString"));
   protected Integer defaultStatementTimeout;
   protected Integer defaultFetchSize;
+  protected boolean adaptiveFetchSize;
+  protected int minAdaptiveFetchSize = 10;
+  protected int maxAdaptiveFetchSize = 1000;
+  protected int batchFetchSize = 100;
+  protected int parallelMappingChunkSize;
+  protected ForkJoinPool parallelMappingPool;
   protected ResultSetType defaultResultSetType;
   protected ExecutorType defaultExecutorType = ExecutorType.SIMPLE;
   protected AutoMappingBehavior autoMappingBehavior = AutoMappingBehavior.PARTIAL;
@@ -178,6 +195,13 @@ public class Configuration {
    */
   protected final Map<String, String> cacheRefMap = new HashMap<>();
 
+  /*
+   * The settings each namespace has declared its cache with, so the cache is kept when the mapper is reloaded.
+   */
+  protected final Map<String, List<Object>> cacheSettings = new ConcurrentHashMap<>();
+  private Cache reloadedCache;
+  private List<Object> reloadedCacheSettings;
+
   public Configuration(Environment environment) {
     this();
     this.environment = environment;
@@ -337,6 +361,139 @@ public class Configuration {
     this.argNameBasedConstructorAutoMapping = argNameBasedConstructorAutoMapping;
   }
 
+  /**
+   * Sets whether the mapper XML files listed in the {@code mappers} element are read and parsed in parallel.
+   *
+   * @param parallelMapperLoading
+   *          If parse in parallel, set to {@code true}
+   *
+   * @since 3.5.14
+   */
+  public void setParallelMapperLoading(boolean parallelMapperLoading) {
+    this.parallelMapperLoading = parallelMapperLoading;
+  }
+
+  /**
+   * Returns whether the mapper XML files listed in the {@code mappers} element are read and parsed in parallel.
+   * <p>
+   * The parsed documents are registered to this configuration one by one in the declared order, so the result is the
+   * same as the sequential loading. Default is {@code false}.
+   *
+   * @return If parse in parallel, set to {@code true}
+   *
+   * @since 3.5.14
+   */
+  public boolean isParallelMapperLoading() {
+    return parallelMapperLoading;
+  }
+
+  /**
+   * Sets whether the mapper XML files are parsed by a StAX based parser instead of a validating DOM parser.
+   *
+   * @param useStaxMapperParser
+   *          If parse by StAX, set to {@code true}
+   *
+   * @since 3.5.14
+   */
+  public void setUseStaxMapperParser(boolean useStaxMapperParser) {
+    this.useStaxMapperParser = useStaxMapperParser;
+  }
+
+  /**
+   * Returns whether the mapper XML files are parsed by a StAX based parser instead of a validating DOM parser.
+   * <p>
+   * The StAX parser builds the same DOM (see {@link org.apache.ibatis.parsing.StaxDocumentBuilder}) faster and with
+   * less memory, but it does not validate the files against the mapper DTD, so an invalid file is reported by the
+   * builder, if at all, instead of the parser. Default is {@code false}.
+   *
+   * @return If parse by StAX, set to {@code true}
+   *
+   * @since 3.5.14
+   */
+  public boolean isUseStaxMapperParser() {
+    return useStaxMapperParser;
+  }
+
+  /**
+   * Sets whether the SQL of the statements in mapper XML files is compiled when the statement is used for the first
+   * time instead of when the mapper is loaded.
+   *
+   * @param lazyStatementCompilation
+   *          If compile lazily, set to {@code true}
+   *
+   * @since 3.5.14
+   */
+  public void setLazyStatementCompilation(boolean lazyStatementCompilation) {
+    this.lazyStatementCompilation = lazyStatementCompilation;
+  }
+
+  /**
+   * Returns whether the SQL of the statements in mapper XML files is compiled when the statement is used for the first
+   * time.
+   * <p>
+   * The statements are still registered at startup, but their SQL is compiled when they are first obtained by
+   * {@link #getMappedStatement(String)}, so errors in their SQL (e.g. an unknown type handler in a parameter) are
+   * reported on the first use. {@link MappedStatement#getSqlSource()} returns a {@link LazySqlSource} that wraps the
+   * compiled SQL source. Call {@link #compileLazyStatements()} to compile all the statements, e.g. to validate them in
+   * a CI build or to warm up after startup.
+   *
+   * @return If compile lazily, set to {@code true}
+   *
+   * @since 3.5.14
+   */
+  public boolean isLazyStatementCompilation() {
+    return lazyStatementCompilation;
+  }
+
+  /**
+   * Gets the report of the configuration build phases.
+   *
+   * @return the report, or {@code null} if the phases are not recorded (default)
+   *
+   * @since 3.5.14
+   */
+  public StartupReport getStartupReport() {
+    return startupReport;
+  }
+
+  /**
+   * Sets the report that records the configuration build phases, e.g. the time spent on each mapper.
+   *
+   * @param startupReport
+   *          the report, or {@code null} to not record the phases
+   *
+   * @since 3.5.14
+   */
+  public void setStartupReport(StartupReport startupReport) {
+    this.startupReport = startupReport;
+    recordReflectors();
+  }
+
+  private void recordReflectors() {
+    if (reflectorFactory instanceof DefaultReflectorFactory) {
+      StartupReport report = startupReport;
+      ((DefaultReflectorFactory) reflectorFactory).setResolutionListener(report == null ? null
+          : (type, durationNanos) -> report.record(StartupReport.REFLECTOR, type.getName(), durationNanos));
+    }
+  }
+
+  /**
+   * Starts a phase of the configuration build.
+   *
+   * @param name
+   *          the phase name
+   * @param resource
+   *          the resource the phase processes (can be {@code null})
+   *
+   * @return the step to close when the phase is completed, which does nothing if no report is set
+   *
+   * @since 3.5.14
+   */
+  public StartupReport.Step startPhase(String name, String resource) {
+    StartupReport report = startupReport;
+    return report == null ? StartupReport.Step.NONE : report.start(name, resource);
+  }
+
   public String getDatabaseId() {
     return databaseId;
   }
@@ -522,6 +679,155 @@ public class Configuration {
     this.defaultFetchSize = defaultFetchSize;
   }
 
+  /**
+   * Gets the maximum number of keys passed to a nested query with {@code fetchType="batch"} at once.
+   *
+   * @return the batch fetch size
+   *
+   * @since 3.5.14
+   */
+  public int getBatchFetchSize() {
+    return batchFetchSize;
+  }
+
+  /**
+   * Sets the maximum number of keys passed to a nested query with {@code fetchType="batch"} at once. The keys of a
+   * result set are split into chunks of this size, and the nested query is run once per chunk.
+   *
+   * @param batchFetchSize
+   *          the batch fetch size (default is 100)
+   *
+   * @since 3.5.14
+   */
+  public void setBatchFetchSize(int batchFetchSize) {
+    this.batchFetchSize = batchFetchSize;
+  }
+
+  /**
+   * Returns whether the fetch size of the statements without a {@code fetchSize} is chosen from the rows they fetched
+   * before.
+   *
+   * @return {@code true} if the fetch size is adaptive
+   *
+   * @since 3.5.14
+   */
+  public boolean isAdaptiveFetchSize() {
+    return adaptiveFetchSize;
+  }
+
+  /**
+   * Sets whether the fetch size of the statements without a {@code fetchSize} is chosen from the rows they fetched
+   * before. If enabled, the rows fetched by each statement are recorded, and the fetch size of the next execution is
+   * the expected number of rows, between the minimum and the maximum adaptive fetch size. The {@code defaultFetchSize}
+   * is used for the first execution.
+   *
+   * @param adaptiveFetchSize
+   *          {@code true} if the fetch size is adaptive (default is {@code false})
+   *
+   * @see org.apache.ibatis.mapping.AdaptiveFetchSize
+   * @see org.apache.ibatis.mapping.MappedStatement#getAdaptiveFetchSize()
+   *
+   * @since 3.5.14
+   */
+  public void setAdaptiveFetchSize(boolean adaptiveFetchSize) {
+    this.adaptiveFetchSize = adaptiveFetchSize;
+  }
+
+  /**
+   * Gets the minimum fetch size chosen when the fetch size is adaptive.
+   *
+   * @return the minimum adaptive fetch size
+   *
+   * @since 3.5.14
+   */
+  public int getMinAdaptiveFetchSize() {
+    return minAdaptiveFetchSize;
+  }
+
+  /**
+   * Sets the minimum fetch size chosen when the fetch size is adaptive.
+   *
+   * @param minAdaptiveFetchSize
+   *          the minimum adaptive fetch size (default is {@code 10})
+   *
+   * @since 3.5.14
+   */
+  public void setMinAdaptiveFetchSize(int minAdaptiveFetchSize) {
+    this.minAdaptiveFetchSize = minAdaptiveFetchSize;
+  }
+
+  /**
+   * Gets the maximum fetch size chosen when the fetch size is adaptive.
+   *
+   * @return the maximum adaptive fetch size
+   *
+   * @since 3.5.14
+   */
+  public int getMaxAdaptiveFetchSize() {
+    return maxAdaptiveFetchSize;
+  }
+
+  /**
+   * Sets the maximum fetch size chosen when the fetch size is adaptive.
+   *
+   * @param maxAdaptiveFetchSize
+   *          the maximum adaptive fetch size (default is {@code 1000})
+   *
+   * @since 3.5.14
+   */
+  public void setMaxAdaptiveFetchSize(int maxAdaptiveFetchSize) {
+    this.maxAdaptiveFetchSize = maxAdaptiveFetchSize;
+  }
+
+  /**
+   * Gets the number of rows mapped by each task when the rows of a result set are mapped in parallel.
+   *
+   * @return the parallel mapping chunk size, {@code 0} if the rows are mapped on the calling thread
+   *
+   * @since 3.5.14
+   */
+  public int getParallelMappingChunkSize() {
+    return parallelMappingChunkSize;
+  }
+
+  /**
+   * Sets the number of rows mapped by each task when the rows of a result set are mapped in parallel. If greater than
+   * {@code 0}, the column values of the rows are read into buffers of this number of rows, which are mapped to objects
+   * on a fork-join pool, while the results are returned in the order of the rows. Only the rows mapped by result maps
+   * without nested result maps, nested queries and discriminators are mapped in parallel.
+   *
+   * @param parallelMappingChunkSize
+   *          the parallel mapping chunk size (default is {@code 0}, i.e. disabled)
+   *
+   * @since 3.5.14
+   */
+  public void setParallelMappingChunkSize(int parallelMappingChunkSize) {
+    this.parallelMappingChunkSize = parallelMappingChunkSize;
+  }
+
+  /**
+   * Gets the pool the rows of result sets are mapped on when they are mapped in parallel.
+   *
+   * @return the pool, {@code null} for the common pool
+   *
+   * @since 3.5.14
+   */
+  public ForkJoinPool getParallelMappingPool() {
+    return parallelMappingPool;
+  }
+
+  /**
+   * Sets the pool the rows of result sets are mapped on when they are mapped in parallel.
+   *
+   * @param parallelMappingPool
+   *          the pool (default is {@code null}, i.e. {@link ForkJoinPool#commonPool()})
+   *
+   * @since 3.5.14
+   */
+  public void setParallelMappingPool(ForkJoinPool parallelMappingPool) {
+    this.parallelMappingPool = parallelMappingPool;
+  }
+
   /**
    * Gets the default result set type.
    *
@@ -617,6 +923,9 @@ public class Configuration {
 
   public void setReflectorFactory(ReflectorFactory reflectorFactory) {
     this.reflectorFactory = reflectorFactory;
+    if (startupReport != null) {
+      recordReflectors();
+    }
   }
 
   public ObjectFactory getObjectFactory() {
@@ -760,6 +1069,46 @@ public class Configuration {
     caches.put(cache.getId(), cache);
   }
 
+  /**
+   * Adds the cache of a namespace along with the settings it has been built from.
+   *
+   * @param cache
+   *          the cache, whose id is the namespace
+   * @param settings
+   *          the settings of the cache element
+   *
+   * @since 3.5.14
+   *
+   * @see #getReloadedCache(String, List)
+   */
+  public void addCache(Cache cache, List<Object> settings) {
+    addCache(cache);
+    cacheSettings.put(cache.getId(), settings);
+  }
+
+  /**
+   * Returns the previous cache of a namespace whose mapper is being reloaded, if the reloaded mapper declares its cache
+   * with the same settings. The cache is cleared, and kept so that the namespaces referring to it with a cache-ref
+   * keep sharing it with the reloaded statements.
+   *
+   * @param namespace
+   *          the namespace
+   * @param settings
+   *          the settings of the cache element of the reloaded mapper
+   *
+   * @return the previous cache, or {@code null} if a new cache must be built
+   *
+   * @since 3.5.14
+   */
+  public synchronized Cache getReloadedCache(String namespace, List<Object> settings) {
+    if (reloadedCache == null || !reloadedCache.getId().equals(namespace)
+        || !settings.equals(reloadedCacheSettings)) {
+      return null;
+    }
+    reloadedCache.clear();
+    return reloadedCache;
+  }
+
   public Collection<String> getCacheNames() {
     return caches.keySet();
   }
@@ -872,7 +1221,30 @@ public class Configuration {
     if (validateIncompleteStatements) {
       buildAllStatements();
     }
-    return mappedStatements.get(id);
+    MappedStatement ms = mappedStatements.get(id);
+    if (ms.getSqlSource() instanceof LazySqlSource) {
+      ((LazySqlSource) ms.getSqlSource()).getSqlSource();
+    }
+    return ms;
+  }
+
+  /**
+   * Compiles the SQL of the statements whose compilation has been deferred by {@link #isLazyStatementCompilation()}.
+   * Afterwards, the statements no longer reference the DOM of their mapper XML files.
+   *
+   * @throws org.apache.ibatis.builder.BuilderException
+   *           if the SQL of a statement is invalid
+   *
+   * @since 3.5.14
+   */
+  public void compileLazyStatements() {
+    buildAllStatements();
+    for (Object value : mappedStatements.values()) {
+      // the values include the markers of ambiguous short names
+      if (value instanceof MappedStatement && ((MappedStatement) value).getSqlSource() instanceof LazySqlSource) {
+        ((LazySqlSource) ((MappedStatement) value).getSqlSource()).getSqlSource();
+      }
+    }
   }
 
   public Map<String, XNode> getSqlFragments() {
@@ -903,6 +1275,135 @@ public class Configuration {
     return mapperRegistry.hasMapper(type);
   }
 
+  /**
+   * Reloads the mapper XML of a namespace, replacing its statements, result maps, parameter maps, key generators, sql
+   * fragments and cache. The annotations of the mapper interface bound to the namespace are parsed again as well.
+   * <p>
+   * The new elements are built in a copy of the namespace that only the reloading thread sees, then published to all
+   * the threads at once: an element looked up by id is either the previous or the new definition, and once one new
+   * element has been returned, all the lookups return new elements. If the mapper cannot be parsed, nothing is
+   * published. Executions that have already obtained a statement keep using the previous definition, and so do the
+   * statements of other namespaces that reference the replaced result maps.
+   * <p>
+   * The cache is kept, and cleared, if the reloaded mapper declares it with the same settings. Otherwise a new cache is
+   * built, unless other namespaces share the cache with a cache-ref: the reload then fails, as their statements would
+   * keep using the previous cache.
+   *
+   * @param namespace
+   *          the namespace declared by the mapper XML
+   * @param resource
+   *          the resource name of the mapper XML
+   * @param inputStream
+   *          the new content of the mapper XML
+   *
+   * @since 3.5.14
+   */
+  public synchronized void reloadMapper(String namespace, String resource, InputStream inputStream) {
+    Class<?> boundType = null;
+    try {
+      boundType = Resources.classForName(namespace);
+    } catch (ClassNotFoundException e) {
+      // ignore, bound type is not required
+    }
+    Class<?> mapperType = boundType != null && hasMapper(boundType) ? boundType : null;
+    List<String> resources = new ArrayList<>(Arrays.asList(resource, "namespace:" + namespace));
+    if (mapperType != null) {
+      resources.add(mapperType.toString());
+    }
+    replaceNamespace(namespace, resources, () -> {
+      new XMLMapperBuilder(inputStream, this, resource, sqlFragments, namespace).parse();
+      if (mapperType != null) {
+        new MapperAnnotationBuilder(this, mapperType).parse();
+      }
+    });
+  }
+
+  /**
+   * Reloads a mapper interface and the mapper XML found next to it, replacing the statements, result maps, parameter
+   * maps, key generators, sql fragments and cache of its namespace.
+   *
+   * @param type
+   *          the mapper interface
+   *
+   * @since 3.5.14
+   *
+   * @see #reloadMapper(String, String, InputStream)
+   */
+  public synchronized void reloadMapper(Class<?> type) {
+    if (!hasMapper(type)) {
+      addMapper(type);
+      return;
+    }
+    replaceNamespace(type.getName(), Arrays.asList(type.toString(), "namespace:" + type.getName(),
+        type.getName().replace('.', '/') + ".xml"), () -> new MapperAnnotationBuilder(this, type).parse());
+  }
+
+  private void replaceNamespace(String namespace, List<String> resources, Runnable loader) {
+    List<String> unloadedResources = new ArrayList<>();
+    for (String resource : resources) {
+      if (loadedResources.remove(resource)) {
+        unloadedResources.add(resource);
+      }
+    }
+    Cache previousCache = hasCache(namespace) ? getCache(namespace) : null;
+    String previousCacheRef = cacheRefMap.remove(namespace);
+    List<Object> previousCacheSettings = cacheSettings.remove(namespace);
+    reloadedCache = previousCache;
+    reloadedCacheSettings = previousCacheSettings;
+    Replacement replacement = new Replacement();
+    List<StrictMap<?>> maps = Arrays.asList((StrictMap<?>) mappedStatements, (StrictMap<?>) resultMaps,
+        (StrictMap<?>) parameterMaps, (StrictMap<?>) keyGenerators, (StrictMap<?>) sqlFragments);
+    for (StrictMap<?> map : maps) {
+      map.beginReplace(replacement, key -> key.startsWith(namespace + ".")
+          && key.indexOf('.', namespace.length() + 1) < 0);
+    }
+    ((StrictMap<?>) caches).beginReplace(replacement, namespace::equals);
+    boolean succeeded = false;
+    try {
+      loader.run();
+      checkCacheRefs(namespace, previousCache);
+      replacement.publish();
+      succeeded = true;
+    } finally {
+      for (StrictMap<?> map : maps) {
+        map.endReplace(succeeded);
+      }
+      ((StrictMap<?>) caches).endReplace(succeeded);
+      reloadedCache = null;
+      reloadedCacheSettings = null;
+      if (!succeeded) {
+        loadedResources.removeAll(resources);
+        loadedResources.addAll(unloadedResources);
+        restoreEntry(cacheRefMap, namespace, previousCacheRef);
+        restoreEntry(cacheSettings, namespace, previousCacheSettings);
+      }
+    }
+  }
+
+  private void checkCacheRefs(String namespace, Cache previousCache) {
+    if (previousCache == null || hasCache(namespace) && getCache(namespace) == previousCache) {
+      return;
+    }
+    List<String> referringNamespaces = new ArrayList<>();
+    for (Map.Entry<String, String> cacheRef : cacheRefMap.entrySet()) {
+      if (namespace.equals(cacheRef.getValue()) && !namespace.equals(cacheRef.getKey())) {
+        referringNamespaces.add(cacheRef.getKey());
+      }
+    }
+    if (!referringNamespaces.isEmpty()) {
+      throw new BuilderException("The cache of namespace '" + namespace + "' is shared with " + referringNamespaces
+          + " by a cache-ref and cannot be replaced by a cache with other settings.");
+    }
+  }
+
+  private static <V> void restoreEntry(Map<String, V> map, String key, V value) {
+    if (value == null) {
+      map.remove(key);
+    } else {
+      map.put(key, value);
+    }
+  }
+
   public boolean hasStatement(String statementName) {
     return hasStatement(statementName, true);
   }
@@ -923,6 +1424,21 @@ public class Configuration {
    * are added as it provides fail-fast statement validation.
    */
   protected void buildAllStatements() {
+    if (startupReport != null && hasIncompleteElements()) {
+      try (StartupReport.Step step = startPhase(StartupReport.BUILD_ALL_STATEMENTS, null)) {
+        buildIncompleteElements();
+      }
+    } else {
+      buildIncompleteElements();
+    }
+  }
+
+  private boolean hasIncompleteElements() {
+    return !incompleteResultMaps.isEmpty() || !incompleteCacheRefs.isEmpty() || !incompleteStatements.isEmpty()
+        || !incompleteMethods.isEmpty();
+  }
+
+  private void buildIncompleteElements() {
     parsePendingResultMaps();
     if (!incompleteCacheRefs.isEmpty()) {
       synchronized (incompleteCacheRefs) {
@@ -952,24 +1468,10 @@ public class Configuration {
       return;
     }
     synchronized (incompleteResultMaps) {
-      boolean resolved;
-      IncompleteElementException ex = null;
-      do {
-        resolved = false;
-        Iterator<ResultMapResolver> iterator = incompleteResultMaps.iterator();
-        while (iterator.hasNext()) {
-          try {
-            iterator.next().resolve();
-            iterator.remove();
-            resolved = true;
-          } catch (IncompleteElementException e) {
-            ex = e;
-          }
-        }
-      } while (resolved);
-      if (!incompleteResultMaps.isEmpty() && ex != null) {
+      ResultMapResolver.resolveAll(incompleteResultMaps);
+      if (!incompleteResultMaps.isEmpty()) {
         // At least one result map is unresolvable.
-        throw ex;
+        throw ResultMapResolver.unresolvedException(incompleteResultMaps);
       }
     }
   }
@@ -1026,6 +1528,9 @@ public class Configuration {
     private static final long serialVersionUID = -4950446264854982944L;
     private final String name;
     private BiFunction<V, V, String> conflictMessageProducer;
+    private StrictMap<V> replacementMap;
+    private Predicate<String> replaceFilter;
+    private volatile Replacement replacement;
 
     public StrictMap(String name, int initialCapacity, float loadFactor) {
       super(initialCapacity, loadFactor);
@@ -1066,9 +1571,14 @@ public class Configuration {
     @Override
     @SuppressWarnings("unchecked")
     public V put(String key, V value) {
+      StrictMap<V> map = getReplacementMap();
+      if (map != null) {
+        return map.put(key, value);
+      }
       if (containsKey(key)) {
+        V previous = super.get(key);
         throw new IllegalArgumentException(name + " already contains key " + key
-            + (conflictMessageProducer == null ? "" : conflictMessageProducer.apply(super.get(key), value)));
+            + (conflictMessageProducer == null ? "" : conflictMessageProducer.apply(previous, value)));
       }
       if (key.contains(".")) {
         final String shortKey = getShortName(key);
@@ -1086,12 +1596,20 @@ public class Configuration {
       if (key == null) {
         return false;
       }
+      StrictMap<V> map = getReplacementMap();
+      if (map != null) {
+        return map.containsKey(key);
+      }
 
       return super.get(key) != null;
     }
 
     @Override
     public V get(Object key) {
+      StrictMap<V> map = getReplacementMap();
+      if (map != null) {
+        return map.get(key);
+      }
       V value = super.get(key);
       if (value == null) {
         throw new IllegalArgumentException(name + " does not contain value for " + key);
@@ -1103,6 +1621,71 @@ public class Configuration {
       return value;
     }
 
+    /**
+     * Returns the map that is read and written instead of this one while the entries of a namespace are replaced, or
+     * {@code null}.
+     */
+    private StrictMap<V> getReplacementMap() {
+      Replacement current = replacement;
+      return current != null && current.isVisible() ? replacementMap : null;
+    }
+
+    /**
+     * Starts replacing the entries accepted by the filter. They are removed from a copy of this map, to which the
+     * replacing thread adds the new entries. The other threads read this map until the replacement is published.
+     */
+    void beginReplace(Replacement replacement, Predicate<String> filter) {
+      StrictMap<V> map = new StrictMap<>(name, this);
+      map.conflictMessageProducer = conflictMessageProducer;
+      for (String key : map.keySet()) {
+        if (filter.test(key)) {
+          map.removeEntry(key);
+        }
+      }
+      replacementMap = map;
+      replaceFilter = filter;
+      this.replacement = replacement;
+    }
+
+    /**
+     * Copies the replaced entries to this map once the replacement is published, or discards them.
+     */
+    void endReplace(boolean succeeded) {
+      if (succeeded) {
+        Set<String> keys = new HashSet<>();
+        for (Map<String, V> map : Arrays.asList(this, replacementMap)) {
+          for (String key : map.keySet()) {
+            if (replaceFilter.test(key)) {
+              keys.add(key);
+              keys.add(getShortName(key));
+            }
+          }
+        }
+        for (String key : keys) {
+          V value = replacementMap.getEntry(key);
+          if (value == null) {
+            super.remove(key);
+          } else {
+            super.put(key, value);
+          }
+        }
+      }
+      replacement = null;
+      replacementMap = null;
+      replaceFilter = null;
+    }
+
+    private V getEntry(String key) {
+      return super.get(key);
+    }
+
+    private void removeEntry(String key) {
+      V previous = super.remove(key);
+      if (previous != null) {
+        super.remove(getShortName(key), previous);
+      }
+    }
+
     protected static class Ambiguity {
       private final String subject;
 
@@ -1121,4 +1704,21 @@ public class Configuration {
     }
   }
 
+  /**
+   * A replacement of the elements of a namespace. The new elements are only visible to the replacing thread until the
+   * replacement is published, then to all the threads at once.
+   */
+  static final class Replacement {
+    private final Thread thread = Thread.currentThread();
+    private volatile boolean published;
+
+    boolean isVisible() {
+      return published || thread == Thread.currentThread();
+    }
+
+    void publish() {
+      published = true;
+    }
+  }
+
 }
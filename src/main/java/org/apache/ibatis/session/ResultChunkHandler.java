@@ -0,0 +1,39 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.List;
+
+/**
+ * Handles the mapped objects of a query in chunks, e.g. to write them to another system in bulk.
+ *
+ * @see SqlSession#select(String, Object, int, ResultChunkHandler)
+ *
+ * @since 3.5.14
+ */
+@FunctionalInterface
+public interface ResultChunkHandler<T> {
+
+  /**
+   * Handles a chunk of mapped objects.
+   *
+   * @param chunk
+   *          the objects, which are removed from the list once this method returns, i.e. the list must be copied to
+   *          keep them
+   */
+  void handleChunk(List<T> chunk);
+
+}
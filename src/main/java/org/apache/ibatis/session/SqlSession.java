@@ -22,6 +22,7 @@ import java.util.Map;
 
 import org.apache.ibatis.cursor.Cursor;
 import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.result.ChunkedResultHandler;
 
 /**
  * The primary Java interface for working with MyBatis. Through this interface you can execute commands, get mappers and
@@ -235,6 +236,52 @@ public interface SqlSession extends Closeable {
    */
   void select(String statement, Object parameter, RowBounds rowBounds, ResultHandler handler);
 
+  /**
+   * Retrieve mapped objects from the statement key and parameter in chunks using a {@code ResultChunkHandler}.
+   *
+   * @param <T>
+   *          the returned object type
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @param chunkSize
+   *          the number of objects passed to the handler at once (the last chunk can be smaller)
+   * @param handler
+   *          ResultChunkHandler that will handle each chunk of retrieved rows
+   *
+   * @since 3.5.14
+   */
+  default <T> void select(String statement, Object parameter, int chunkSize, ResultChunkHandler<T> handler) {
+    select(statement, parameter, RowBounds.DEFAULT, chunkSize, handler);
+  }
+
+  /**
+   * Retrieve mapped objects from the statement key and parameter in chunks using a {@code ResultChunkHandler} and
+   * {@code RowBounds}.
+   *
+   * @param <T>
+   *          the returned object type
+   * @param statement
+   *          Unique identifier matching the statement to use.
+   * @param parameter
+   *          A parameter object to pass to the statement.
+   * @param rowBounds
+   *          RowBound instance to limit the query results
+   * @param chunkSize
+   *          the number of objects passed to the handler at once (the last chunk can be smaller)
+   * @param handler
+   *          ResultChunkHandler that will handle each chunk of retrieved rows
+   *
+   * @since 3.5.14
+   */
+  default <T> void select(String statement, Object parameter, RowBounds rowBounds, int chunkSize,
+      ResultChunkHandler<T> handler) {
+    ChunkedResultHandler<T> resultHandler = new ChunkedResultHandler<>(chunkSize, handler);
+    select(statement, parameter, rowBounds, resultHandler);
+    resultHandler.flush();
+  }
+
   /**
    * Execute an insert statement.
    *
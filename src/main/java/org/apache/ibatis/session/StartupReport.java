@@ -0,0 +1,293 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Records how long the phases of building a {@link Configuration} take, e.g. each mapper XML file or each package
+ * that is scanned.
+ * <p>
+ * A report is enabled by the {@code startupReport} setting or by {@link Configuration#setStartupReport(StartupReport)}
+ * and is available from {@link Configuration#getStartupReport()} afterwards. The durations of nested phases are
+ * included in the enclosing phase (e.g. the properties of a class resolved while a mapper is parsed). Phases are also
+ * recorded when they are run later, e.g. pending statements built on first use or mappers reloaded at runtime, so the
+ * report keeps at most a maximum number of phases ({@value #DEFAULT_MAX_PHASES} by default); the following phases are
+ * only counted (see {@link #getDroppedPhaseCount()}).
+ * </p>
+ * <p>
+ * A {@link Listener} is notified of each completed phase. It can be used to forward the phases to a monitoring system,
+ * e.g. as JFR events.
+ * </p>
+ *
+ * @since 3.5.14
+ */
+public class StartupReport {
+
+  /**
+   * Parsing the configuration XML (the phases of the mappers etc. are included).
+   */
+  public static final String CONFIGURATION = "configuration";
+  /**
+   * Registering the type aliases of a package (the resource is the package name).
+   */
+  public static final String TYPE_ALIASES = "typeAliases";
+  /**
+   * Registering the type handlers of a package (the resource is the package name).
+   */
+  public static final String TYPE_HANDLERS = "typeHandlers";
+  /**
+   * Scanning a package for mapper interfaces (the resource is the package name).
+   */
+  public static final String MAPPER_SCAN = "mapperScan";
+  /**
+   * Reading and parsing a mapper XML document listed in the configuration (the resource is the location of the file).
+   */
+  public static final String MAPPER_DOCUMENT = "mapperDocument";
+  /**
+   * Building the elements of a mapper XML file (the resource is the location of the file).
+   */
+  public static final String MAPPER_XML = "mapperXml";
+  /**
+   * Processing the annotations of a mapper interface (the resource is the interface name).
+   */
+  public static final String MAPPER_ANNOTATIONS = "mapperAnnotations";
+  /**
+   * Resolving the pending result maps, cache references and statements after a mapper has been parsed (the resource
+   * is the mapper).
+   */
+  public static final String PENDING_ELEMENTS = "pendingElements";
+  /**
+   * Building the statements that were still incomplete when the configuration was parsed.
+   */
+  public static final String BUILD_ALL_STATEMENTS = "buildAllStatements";
+  /**
+   * Resolving the properties of a class by its cached reflector (the resource is the class name).
+   */
+  public static final String REFLECTOR = "reflector";
+
+  /**
+   * The default maximum number of phases kept by a report.
+   */
+  public static final int DEFAULT_MAX_PHASES = 10000;
+
+  private final Queue<Phase> phases = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger phaseCount = new AtomicInteger();
+  private final AtomicLong droppedPhaseCount = new AtomicLong();
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+  private final int maxPhases;
+
+  public StartupReport() {
+    this(DEFAULT_MAX_PHASES);
+  }
+
+  /**
+   * Creates a report that keeps at most the given number of phases.
+   *
+   * @param maxPhases
+   *          the maximum number of phases
+   */
+  public StartupReport(int maxPhases) {
+    this.maxPhases = maxPhases;
+  }
+
+  public void addListener(Listener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Starts a phase, which is recorded when the returned step is closed.
+   *
+   * @param name
+   *          the phase name
+   * @param resource
+   *          the resource the phase processes (can be {@code null})
+   *
+   * @return the step
+   */
+  public Step start(String name, String resource) {
+    long startNanos = System.nanoTime();
+    return () -> record(name, resource, System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Records a completed phase.
+   *
+   * @param name
+   *          the phase name
+   * @param resource
+   *          the resource the phase processed (can be {@code null})
+   * @param durationNanos
+   *          the duration in nanoseconds
+   */
+  public void record(String name, String resource, long durationNanos) {
+    Phase phase = new Phase(name, resource, Thread.currentThread().getName(), durationNanos);
+    if (phaseCount.get() < maxPhases && phaseCount.getAndIncrement() < maxPhases) {
+      phases.add(phase);
+    } else {
+      droppedPhaseCount.incrementAndGet();
+    }
+    for (Listener listener : listeners) {
+      listener.phaseCompleted(phase);
+    }
+  }
+
+  /**
+   * Returns the recorded phases in the order they have been completed.
+   *
+   * @return the phases
+   */
+  public List<Phase> getPhases() {
+    return Collections.unmodifiableList(new ArrayList<>(phases));
+  }
+
+  /**
+   * Returns the number of phases that were not kept because the report already had the maximum number of phases.
+   *
+   * @return the number of dropped phases
+   */
+  public long getDroppedPhaseCount() {
+    return droppedPhaseCount.get();
+  }
+
+  /**
+   * Returns the recorded phases of a name.
+   *
+   * @param name
+   *          the phase name
+   *
+   * @return the phases
+   */
+  public List<Phase> getPhases(String name) {
+    return phases.stream().filter(phase -> phase.getName().equals(name)).collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the total duration of the phases of a name.
+   *
+   * @param name
+   *          the phase name
+   * @param unit
+   *          the time unit
+   *
+   * @return the total duration
+   */
+  public long getTotal(String name, TimeUnit unit) {
+    return unit.convert(getPhases(name).stream().mapToLong(Phase::getDurationNanos).sum(), TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns the slowest phases, e.g. to find the mappers that take most of the time.
+   *
+   * @param name
+   *          the phase name
+   * @param limit
+   *          the maximum number of phases to return
+   *
+   * @return the phases, the slowest first
+   */
+  public List<Phase> getSlowest(String name, int limit) {
+    return getPhases(name).stream().sorted(Comparator.comparingLong(Phase::getDurationNanos).reversed()).limit(limit)
+        .collect(Collectors.toList());
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("StartupReport");
+    phases.stream().map(Phase::getName).distinct().forEach(name -> sb.append(System.lineSeparator()).append(name)
+        .append(": ").append(getPhases(name).size()).append(" x, ").append(getTotal(name, TimeUnit.MILLISECONDS))
+        .append(" ms"));
+    long dropped = getDroppedPhaseCount();
+    if (dropped > 0) {
+      sb.append(System.lineSeparator()).append("dropped: ").append(dropped).append(" x");
+    }
+    return sb.toString();
+  }
+
+  /**
+   * A running phase.
+   */
+  @FunctionalInterface
+  public interface Step extends AutoCloseable {
+
+    /**
+     * A step that records nothing, used when no report is enabled.
+     */
+    Step NONE = () -> {
+    };
+
+    /**
+     * Completes the phase.
+     */
+    @Override
+    void close();
+  }
+
+  /**
+   * Notified of each completed phase.
+   */
+  @FunctionalInterface
+  public interface Listener {
+    void phaseCompleted(Phase phase);
+  }
+
+  public static class Phase {
+    private final String name;
+    private final String resource;
+    private final String thread;
+    private final long durationNanos;
+
+    public Phase(String name, String resource, String thread, long durationNanos) {
+      this.name = name;
+      this.resource = resource;
+      this.thread = thread;
+      this.durationNanos = durationNanos;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public String getResource() {
+      return resource;
+    }
+
+    public String getThread() {
+      return thread;
+    }
+
+    public long getDurationNanos() {
+      return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+      return name + (resource == null ? "" : " " + resource) + ": "
+          + TimeUnit.NANOSECONDS.toMicros(durationNanos) / 1000.0 + " ms";
+    }
+  }
+
+}
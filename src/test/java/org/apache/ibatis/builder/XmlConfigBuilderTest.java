@@ -29,6 +29,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.math.RoundingMode;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.CallableStatement;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -36,6 +41,8 @@ import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 import org.apache.ibatis.builder.mapper.CustomMapper;
 import org.apache.ibatis.builder.typehandler.CustomIntegerTypeHandler;
@@ -60,6 +67,7 @@ import org.apache.ibatis.session.AutoMappingUnknownColumnBehavior;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.StartupReport;
 import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
 import org.apache.ibatis.type.BaseTypeHandler;
 import org.apache.ibatis.type.EnumOrdinalTypeHandler;
@@ -70,9 +78,13 @@ import org.apache.ibatis.type.TypeHandlerRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class XmlConfigBuilderTest {
 
+  @TempDir
+  Path tempDir;
+
   @Test
   void shouldSuccessfullyLoadMinimalXMLConfigFile() throws Exception {
     String resource = "org/apache/ibatis/builder/MinimalMapperConfig.xml";
@@ -92,6 +104,11 @@ class XmlConfigBuilderTest {
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.SIMPLE);
       assertNull(config.getDefaultStatementTimeout());
       assertNull(config.getDefaultFetchSize());
+      assertThat(config.isAdaptiveFetchSize()).isFalse();
+      assertThat(config.getMinAdaptiveFetchSize()).isEqualTo(10);
+      assertThat(config.getMaxAdaptiveFetchSize()).isEqualTo(1000);
+      assertThat(config.getBatchFetchSize()).isEqualTo(100);
+      assertThat(config.getParallelMappingChunkSize()).isZero();
       assertNull(config.getDefaultResultSetType());
       assertThat(config.isMapUnderscoreToCamelCase()).isFalse();
       assertThat(config.isSafeRowBoundsEnabled()).isFalse();
@@ -111,6 +128,10 @@ class XmlConfigBuilderTest {
       assertThat(config.isArgNameBasedConstructorAutoMapping()).isFalse();
       assertThat(config.getDefaultSqlProviderType()).isNull();
       assertThat(config.isNullableOnForEach()).isFalse();
+      assertThat(config.isParallelMapperLoading()).isFalse();
+      assertThat(config.isUseStaxMapperParser()).isFalse();
+      assertThat(config.isLazyStatementCompilation()).isFalse();
+      assertThat(config.getStartupReport()).isNull();
     }
   }
 
@@ -199,6 +220,11 @@ class XmlConfigBuilderTest {
       assertThat(config.getDefaultExecutorType()).isEqualTo(ExecutorType.BATCH);
       assertThat(config.getDefaultStatementTimeout()).isEqualTo(10);
       assertThat(config.getDefaultFetchSize()).isEqualTo(100);
+      assertThat(config.isAdaptiveFetchSize()).isTrue();
+      assertThat(config.getMinAdaptiveFetchSize()).isEqualTo(20);
+      assertThat(config.getMaxAdaptiveFetchSize()).isEqualTo(5000);
+      assertThat(config.getBatchFetchSize()).isEqualTo(500);
+      assertThat(config.getParallelMappingChunkSize()).isEqualTo(512);
       assertThat(config.getDefaultResultSetType()).isEqualTo(ResultSetType.SCROLL_INSENSITIVE);
       assertThat(config.isMapUnderscoreToCamelCase()).isTrue();
       assertThat(config.isSafeRowBoundsEnabled()).isTrue();
@@ -217,6 +243,10 @@ class XmlConfigBuilderTest {
       assertThat(config.isArgNameBasedConstructorAutoMapping()).isTrue();
       assertThat(config.getDefaultSqlProviderType().getName()).isEqualTo(MySqlProvider.class.getName());
       assertThat(config.isNullableOnForEach()).isTrue();
+      assertThat(config.isParallelMapperLoading()).isTrue();
+      assertThat(config.isUseStaxMapperParser()).isTrue();
+      assertThat(config.isLazyStatementCompilation()).isTrue();
+      assertThat(config.getStartupReport().getPhases(StartupReport.CONFIGURATION)).hasSize(1);
 
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blogauthor")).isEqualTo(Author.class);
       assertThat(config.getTypeAliasRegistry().getTypeAliases().get("blog")).isEqualTo(Blog.class);
@@ -283,6 +313,47 @@ class XmlConfigBuilderTest {
     }
   }
 
+  @Test
+  void parallelMapperLoadingShouldUseContextClassLoaderOfCaller() throws Exception {
+    StringBuilder mappers = new StringBuilder();
+    Files.createDirectories(tempDir.resolve("tccl"));
+    for (int i = 0; i < 16; i++) {
+      Files.write(tempDir.resolve("tccl/Mapper" + i + ".xml"), ("<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+          + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\" \"https://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+          + "<mapper namespace=\"tccl" + i + "\"><select id=\"select\" resultType=\"int\">select " + i
+          + "</select></mapper>").getBytes(StandardCharsets.UTF_8));
+      mappers.append("<mapper resource=\"tccl/Mapper").append(i).append(".xml\"/>");
+    }
+    final String MAPPER_CONFIG = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE configuration PUBLIC \"-//mybatis.org//DTD Config 3.0//EN\" \"https://mybatis.org/dtd/mybatis-3-config.dtd\">\n"
+        + "<configuration><settings><setting name=\"parallelMapperLoading\" value=\"true\"/></settings>"
+        + "<mappers>" + mappers + "</mappers></configuration>";
+
+    // the parallel stream runs on the pool of the calling thread, whose other workers do not see the mappers
+    ForkJoinPool pool = new ForkJoinPool(4, p -> {
+      ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+      worker.setContextClassLoader(ClassLoader.getSystemClassLoader());
+      return worker;
+    }, null, false);
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] { tempDir.toUri().toURL() },
+        getClass().getClassLoader())) {
+      Configuration config = pool.submit(() -> {
+        Thread.currentThread().setContextClassLoader(classLoader);
+        try {
+          return new XMLConfigBuilder(new StringReader(MAPPER_CONFIG)).parse();
+        } finally {
+          Thread.currentThread().setContextClassLoader(ClassLoader.getSystemClassLoader());
+        }
+      }).get();
+      for (int i = 0; i < 16; i++) {
+        assertThat(config.getMappedStatement("tccl" + i + ".select").getBoundSql(null).getSql())
+            .isEqualTo("select " + i);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @Test
   void unknownSettings() {
     // @formatter:off
@@ -20,14 +20,18 @@ import static com.googlecode.catchexception.apis.BDDCatchException.when;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.BDDAssertions.then;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.regex.Pattern;
 
+import org.apache.ibatis.builder.xml.LazySqlSource;
 import org.apache.ibatis.builder.xml.XMLMapperBuilder;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.mapping.ResultSetType;
 import org.apache.ibatis.mapping.StatementType;
+import org.apache.ibatis.scripting.defaults.RawSqlSource;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.type.TypeHandler;
 import org.junit.jupiter.api.Assertions;
@@ -46,6 +50,39 @@ class XmlMapperBuilderTest {
     }
   }
 
+  @Test
+  void shouldCompileStatementOnFirstUseWhenLazy() throws Exception {
+    Configuration configuration = new Configuration();
+    configuration.setLazyStatementCompilation(true);
+    String mapper = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\"\n"
+        + "  \"https://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n"
+        + "<mapper namespace=\"lazy\">\n"
+        + "  <select id=\"select\" resultType=\"int\">select id from author where id = #{id}</select>\n"
+        + "  <select id=\"broken\" resultType=\"int\">\n"
+        + "    select id from author where id = #{id,typeHandler=Missing}\n"
+        + "  </select>\n"
+        + "</mapper>";
+    try (InputStream inputStream = new ByteArrayInputStream(mapper.getBytes(StandardCharsets.UTF_8))) {
+      new XMLMapperBuilder(inputStream, configuration, "lazy.xml", configuration.getSqlFragments()).parse();
+    }
+
+    LazySqlSource selectSource = (LazySqlSource) configuration.getMappedStatements().stream()
+        .filter(ms -> "lazy.select".equals(ms.getId())).findFirst().get().getSqlSource();
+    assertThat(selectSource.isCompiled()).isFalse();
+    assertThat(configuration.getMappedStatement("lazy.select").getBoundSql(1).getSql())
+        .isEqualTo("select id from author where id = ?");
+    assertThat(selectSource.isCompiled()).isTrue();
+    assertThat(selectSource.getSqlSource()).isInstanceOf(RawSqlSource.class);
+
+    when(() -> configuration.getMappedStatement("lazy.broken"));
+    then(caughtException()).isInstanceOf(BuilderException.class)
+        .hasMessageContaining("Error creating SqlSource for statement 'lazy.broken'");
+    when(configuration::compileLazyStatements);
+    then(caughtException()).isInstanceOf(BuilderException.class)
+        .hasMessageContaining("Error creating SqlSource for statement 'lazy.broken'");
+  }
+
   @Test
   void mappedStatementWithOptions() throws Exception {
     Configuration configuration = new Configuration();
@@ -229,4 +266,43 @@ class XmlMapperBuilderTest {
       assertThat(exception.getMessage()).isEqualTo(message);
     }
   }
+
+  @Test
+  void shouldResolveResultMapsInExtendsOrder() throws Exception {
+    Configuration configuration = new Configuration();
+    parseMapper(configuration, "first", "<resultMap id=\"child\" type=\"map\" extends=\"second.parent\">"
+        + "<result property=\"c\" column=\"c\"/></resultMap>");
+    parseMapper(configuration, "second", "<resultMap id=\"parent\" type=\"map\" extends=\"third.root\">"
+        + "<result property=\"b\" column=\"b\"/></resultMap>");
+    assertThat(configuration.getIncompleteResultMaps()).hasSize(2);
+
+    parseMapper(configuration, "third",
+        "<resultMap id=\"root\" type=\"map\"><id property=\"a\" column=\"a\"/></resultMap>");
+
+    assertThat(configuration.getIncompleteResultMaps()).isEmpty();
+    assertThat(configuration.getResultMap("first.child").getMappedColumns()).containsExactlyInAnyOrder("A", "B", "C");
+  }
+
+  @Test
+  void shouldReportResultMapsExtendingEachOther() throws Exception {
+    Configuration configuration = new Configuration();
+    parseMapper(configuration, "first",
+        "<resultMap id=\"a\" type=\"map\" extends=\"second.b\"><id property=\"a\" column=\"a\"/></resultMap>");
+    parseMapper(configuration, "second",
+        "<resultMap id=\"b\" type=\"map\" extends=\"first.a\"><id property=\"b\" column=\"b\"/></resultMap>");
+
+    when(configuration::getMappedStatementNames);
+    then(caughtException()).isInstanceOf(IncompleteElementException.class)
+        .hasMessage("Result maps extend each other in a cycle: first.a -> second.b -> first.a");
+  }
+
+  private static void parseMapper(Configuration configuration, String namespace, String elements) throws Exception {
+    String mapper = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\"\n"
+        + "  \"https://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n" + "<mapper namespace=\"" + namespace + "\">"
+        + elements + "</mapper>";
+    try (InputStream inputStream = new ByteArrayInputStream(mapper.getBytes(StandardCharsets.UTF_8))) {
+      new XMLMapperBuilder(inputStream, configuration, namespace + ".xml", configuration.getSqlFragments()).parse();
+    }
+  }
 }
@@ -0,0 +1,148 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.cursor.defaults;
+
+import static com.googlecode.catchexception.apis.BDDCatchException.caughtException;
+import static com.googlecode.catchexception.apis.BDDCatchException.when;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.BDDAssertions.then;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.Test;
+
+class PrefetchingCursorTest {
+
+  @Test
+  void shouldReturnAllObjects() {
+    ListCursor source = new ListCursor(Arrays.asList("a", null, "c"), -1);
+    PrefetchingCursor<String> cursor = new PrefetchingCursor<>(source, 2);
+    assertThat(cursor.isOpen()).isFalse();
+    List<String> objects = new ArrayList<>();
+    cursor.forEach(objects::add);
+    assertThat(objects).containsExactly("a", null, "c");
+    assertThat(cursor.isConsumed()).isTrue();
+    assertThat(cursor.isOpen()).isFalse();
+    assertThat(cursor.getCurrentIndex()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldNotFetchMoreThanPrefetchSizeAhead() throws Exception {
+    ListCursor source = new ListCursor(Arrays.asList("a", "b", "c", "d", "e", "f"), -1);
+    PrefetchingCursor<String> cursor = new PrefetchingCursor<>(source, 2);
+    Iterator<String> iterator = cursor.iterator();
+    assertThat(iterator.next()).isEqualTo("a");
+    // the returned object, two in the queue and one waiting to be added
+    long deadline = System.currentTimeMillis() + 5000;
+    while (source.fetched.get() < 4 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(source.fetched.get()).isEqualTo(4);
+    Thread.sleep(100);
+    assertThat(source.fetched.get()).isEqualTo(4);
+    cursor.close();
+    assertThat(source.closed).isTrue();
+    assertThat(iterator.hasNext()).isFalse();
+    assertThat(cursor.isConsumed()).isFalse();
+  }
+
+  @Test
+  void shouldThrowFetchErrorAfterPreviousObjects() {
+    ListCursor source = new ListCursor(Arrays.asList("a", "b", "c"), 2);
+    PrefetchingCursor<String> cursor = new PrefetchingCursor<>(source, 10);
+    Iterator<String> iterator = cursor.iterator();
+    assertThat(iterator.next()).isEqualTo("a");
+    assertThat(iterator.next()).isEqualTo("b");
+    when(iterator::hasNext);
+    then(caughtException()).isInstanceOf(IllegalStateException.class).hasMessage("Fetch failed");
+    assertThat(source.closed).isTrue();
+    assertThat(iterator.hasNext()).isFalse();
+    when(iterator::next);
+    then(caughtException()).isInstanceOf(NoSuchElementException.class);
+  }
+
+  @Test
+  void shouldUseThreadFactory() {
+    AtomicInteger threads = new AtomicInteger();
+    PrefetchingCursor<String> cursor = new PrefetchingCursor<>(new ListCursor(Arrays.asList("a"), -1), 1,
+        runnable -> {
+          threads.incrementAndGet();
+          return new Thread(runnable);
+        });
+    Iterator<String> iterator = cursor.iterator();
+    assertThat(threads.get()).isZero();
+    assertThat(iterator.next()).isEqualTo("a");
+    assertThat(threads.get()).isEqualTo(1);
+    assertThat(cursor.getCurrentIndex()).isZero();
+  }
+
+  private static class ListCursor implements Cursor<String> {
+    private final List<String> objects;
+    private final int failAt;
+    private final AtomicInteger fetched = new AtomicInteger();
+    private volatile boolean closed;
+
+    ListCursor(List<String> objects, int failAt) {
+      this.objects = objects;
+      this.failAt = failAt;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return !closed;
+    }
+
+    @Override
+    public boolean isConsumed() {
+      return fetched.get() == objects.size();
+    }
+
+    @Override
+    public int getCurrentIndex() {
+      return fetched.get() - 1;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+      return new Iterator<String>() {
+        @Override
+        public boolean hasNext() {
+          return !closed && fetched.get() < objects.size();
+        }
+
+        @Override
+        public String next() {
+          if (fetched.get() == failAt) {
+            throw new IllegalStateException("Fetch failed");
+          }
+          return objects.get(fetched.getAndIncrement());
+        }
+      };
+    }
+  }
+
+}
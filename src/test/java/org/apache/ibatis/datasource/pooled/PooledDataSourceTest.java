@@ -18,10 +18,16 @@ package org.apache.ibatis.datasource.pooled;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -158,4 +164,66 @@ class PooledDataSourceTest {
     assertEquals(0, poolState.getActiveConnectionCount());
     assertEquals(0, poolState.getIdleConnectionCount());
   }
+
+  @Test
+  void shouldReusePreparedStatementsAfterConnectionIsReturned() throws SQLException {
+    dataSource.setPoolMaximumActiveConnections(1);
+    dataSource.setPoolStatementCacheSize(2);
+    PoolState poolState = dataSource.getPoolState();
+
+    Connection realConnection;
+    try (Connection connection = dataSource.getConnection()) {
+      realConnection = PooledDataSource.unwrapConnection(connection);
+      PreparedStatement statement = connection.prepareStatement("VALUES (?)");
+      assertSame(connection, statement.getConnection());
+      statement.setMaxRows(5);
+      statement.setInt(1, 1);
+      statement.executeQuery().close();
+      statement.close();
+      assertTrue(statement.isClosed());
+      assertThrows(SQLException.class, statement::executeQuery);
+    }
+    try (Connection connection = dataSource.getConnection()) {
+      assertSame(realConnection, PooledDataSource.unwrapConnection(connection));
+      try (PreparedStatement statement = connection.prepareStatement("VALUES (?)")) {
+        assertEquals(0, statement.getMaxRows());
+        assertThrows(SQLException.class, statement::executeQuery);
+      }
+      connection.prepareStatement("VALUES (?)", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY)
+          .close();
+      connection.prepareStatement("VALUES (?)", Statement.RETURN_GENERATED_KEYS).close();
+    }
+
+    assertEquals(1, poolState.getStatementCacheHitCount());
+    assertEquals(3, poolState.getStatementCacheMissCount());
+    assertEquals(2, dataSource.getPoolState().idleConnections.get(0).getStatementCache().getStatementCount());
+  }
+
+  @Test
+  void shouldCloseCachedPreparedStatementsWhenConnectionIsClosed() throws SQLException {
+    dataSource.setPoolStatementCacheSize(10);
+
+    PreparedStatement realStatement;
+    try (Connection connection = dataSource.getConnection()) {
+      connection.prepareStatement("VALUES (1)").close();
+      try (PreparedStatement statement = connection.prepareStatement("VALUES (1)")) {
+        realStatement = statement.unwrap(PreparedStatement.class);
+      }
+    }
+    assertFalse(realStatement.isClosed());
+
+    dataSource.forceCloseAll();
+
+    assertTrue(realStatement.isClosed());
+  }
+
+  @Test
+  void shouldNotCacheStatementsByDefault() throws SQLException {
+    try (Connection connection = dataSource.getConnection()) {
+      connection.prepareStatement("VALUES (1)").close();
+    }
+
+    assertNull(dataSource.getPoolState().idleConnections.get(0).getStatementCache());
+    assertEquals(0, dataSource.getPoolState().getStatementCacheMissCount());
+  }
 }
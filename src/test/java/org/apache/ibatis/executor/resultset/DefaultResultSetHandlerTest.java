@@ -18,6 +18,9 @@ package org.apache.ibatis.executor.resultset;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.sql.Connection;
@@ -117,6 +120,7 @@ class DefaultResultSetHandlerTest {
     final TypeHandler typeHandler = mock(TypeHandler.class);
     when(resultMapping.getColumn()).thenReturn("column");
     when(resultMapping.getTypeHandler()).thenReturn(typeHandler);
+    when(rsw.resolveTypeHandler(typeHandler, "column")).thenReturn((TypeHandler) typeHandler);
     when(typeHandler.getResult(any(ResultSet.class), any(String.class))).thenThrow(new SQLException("exception"));
     List<ResultMapping> constructorMappings = Collections.singletonList(resultMapping);
 
@@ -130,6 +134,56 @@ class DefaultResultSetHandlerTest {
     }
   }
 
+  @Test
+  void shouldResolveUnknownTypeHandlerOncePerResultSet() throws Exception {
+    final Configuration config = new Configuration();
+    final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
+    final ResultMap resultMap = new ResultMap.Builder(config, "testMap", HashMap.class,
+        Collections.singletonList(
+            new ResultMapping.Builder(config, "value", "VALUE", registry.getUnknownTypeHandler()).build()))
+        .build();
+    final MappedStatement ms = new MappedStatement.Builder(config, "testSelect",
+        new StaticSqlSource(config, "some select statement"), SqlCommandType.SELECT)
+        .resultMaps(Collections.singletonList(resultMap)).build();
+    final DefaultResultSetHandler resultSetHandler = new DefaultResultSetHandler(null, ms, null, null, null,
+        new RowBounds(0, 100));
+
+    when(stmt.getResultSet()).thenReturn(rs);
+    when(rs.getMetaData()).thenReturn(rsmd);
+    when(rs.getType()).thenReturn(ResultSet.TYPE_FORWARD_ONLY);
+    when(rs.next()).thenReturn(true, true, true, false);
+    when(rs.getLong("VALUE")).thenReturn(1L, 2L, 3L);
+    when(rsmd.getColumnCount()).thenReturn(1);
+    when(rsmd.getColumnLabel(1)).thenReturn("VALUE");
+    when(rsmd.getColumnType(1)).thenReturn(Types.BIGINT);
+    when(rsmd.getColumnClassName(1)).thenReturn(Long.class.getName());
+    when(stmt.getConnection()).thenReturn(conn);
+    when(conn.getMetaData()).thenReturn(dbmd);
+    when(dbmd.supportsMultipleResultSets()).thenReturn(false);
+
+    final List<Object> results = resultSetHandler.handleResultSets(stmt);
+    assertEquals(3, results.size());
+    assertEquals(3L, ((HashMap) results.get(2)).get("value"));
+    verify(rs, times(1)).getMetaData();
+    verify(rs, never()).getObject("VALUE");
+  }
+
+  @Test
+  void shouldKeepCanonicalIntegersOfRelationKeysAsLongs() {
+    assertEquals(7L, DefaultResultSetHandler.relationKeyValue("7"));
+    assertEquals(0L, DefaultResultSetHandler.relationKeyValue("0"));
+    assertEquals(-42L, DefaultResultSetHandler.relationKeyValue("-42"));
+    assertEquals(999999999999999999L, DefaultResultSetHandler.relationKeyValue("999999999999999999"));
+    assertEquals("007", DefaultResultSetHandler.relationKeyValue("007"));
+    assertEquals("-0", DefaultResultSetHandler.relationKeyValue("-0"));
+    assertEquals("+1", DefaultResultSetHandler.relationKeyValue("+1"));
+    assertEquals("-", DefaultResultSetHandler.relationKeyValue("-"));
+    assertEquals("", DefaultResultSetHandler.relationKeyValue(""));
+    assertEquals("1.0", DefaultResultSetHandler.relationKeyValue("1.0"));
+    assertEquals("9999999999999999999", DefaultResultSetHandler.relationKeyValue("9999999999999999999"));
+    Assertions.assertNull(DefaultResultSetHandler.relationKeyValue(null));
+  }
+
   MappedStatement getMappedStatement() {
     final Configuration config = new Configuration();
     final TypeHandlerRegistry registry = config.getTypeHandlerRegistry();
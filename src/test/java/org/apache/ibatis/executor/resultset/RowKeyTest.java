@@ -0,0 +1,90 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.executor.resultset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RowKeyTest {
+
+  @Mock
+  private ResultSet rs;
+
+  @Test
+  void shouldBeEqualForSameValues() throws Exception {
+    RowKey.Columns columns = new RowKey.Columns("map", Arrays.asList("A", "B"), false);
+    when(rs.getLong("A")).thenReturn(1L, 1L, 1L);
+    when(rs.getLong("B")).thenReturn(2L, 2L, 3L);
+    when(rs.wasNull()).thenReturn(false);
+    Object key = columns.read(rs);
+    Object sameKey = columns.read(rs);
+    Object otherKey = columns.read(rs);
+    assertThat(key).isEqualTo(sameKey).hasSameHashCodeAs(sameKey).isNotEqualTo(otherKey);
+  }
+
+  @Test
+  void shouldNotBeEqualForOtherColumns() throws Exception {
+    RowKey.Columns columns = new RowKey.Columns("map", Collections.singletonList("ID"), false);
+    RowKey.Columns prefixedColumns = new RowKey.Columns("map", Collections.singletonList("P_ID"), false);
+    when(rs.getLong("ID")).thenReturn(1L);
+    when(rs.getLong("P_ID")).thenReturn(1L);
+    when(rs.wasNull()).thenReturn(false);
+    assertThat(columns.read(rs)).isNotEqualTo(prefixedColumns.read(rs));
+  }
+
+  @Test
+  void shouldDistinguishNullFromZero() throws Exception {
+    RowKey.Columns columns = new RowKey.Columns("map", Arrays.asList("A", "B"), false);
+    when(rs.getLong("A")).thenReturn(1L);
+    when(rs.getLong("B")).thenReturn(0L);
+    when(rs.wasNull()).thenReturn(false, true, false, false);
+    assertThat(columns.read(rs)).isNotEqualTo(columns.read(rs));
+  }
+
+  @Test
+  void shouldReturnNullCacheKeyIfAllValuesAreNull() throws Exception {
+    when(rs.getLong("ID")).thenReturn(0L);
+    when(rs.wasNull()).thenReturn(true);
+    assertThat(new RowKey.Columns("map", Collections.singletonList("ID"), false).read(rs))
+        .isSameAs(CacheKey.NULL_CACHE_KEY);
+    assertThat(new RowKey.Columns("map", Collections.singletonList("ID"), true).read(rs)).isInstanceOf(RowKey.class);
+  }
+
+  @Test
+  void shouldCombineWithParentKey() throws Exception {
+    RowKey.Columns columns = new RowKey.Columns("map", Collections.singletonList("ID"), false);
+    when(rs.getLong("ID")).thenReturn(1L);
+    when(rs.wasNull()).thenReturn(false);
+    RowKey key = (RowKey) columns.read(rs);
+    CacheKey parent = new CacheKey(new Object[] { "parent", "ID", 1 });
+    CacheKey otherParent = new CacheKey(new Object[] { "parent", "ID", 2 });
+    assertThat(key.combine(parent)).isEqualTo(key.combine(new CacheKey(new Object[] { "parent", "ID", 1 })))
+        .isNotEqualTo(key.combine(otherParent)).isNotEqualTo(key);
+    assertThat(key.combine(key)).isEqualTo(key.combine(columns.read(rs)));
+  }
+
+}
@@ -21,13 +21,26 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Set;
 
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
 import org.apache.ibatis.annotations.CacheNamespace;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Unit tests for {@link ResolverUtil}.
@@ -40,6 +53,9 @@ import org.junit.jupiter.api.Test;
 class ResolverUtilTest {
   private static ClassLoader currentContextClassLoader;
 
+  @TempDir
+  Path tempDir;
+
   @BeforeAll
   static void setUp() {
     currentContextClassLoader = Thread.currentThread().getContextClassLoader();
@@ -114,6 +130,68 @@ class ResolverUtilTest {
     classSets.forEach(c -> assertTrue(VFS.class.isAssignableFrom(c)));
   }
 
+  @Test
+  void findWithClassIndex() throws Exception {
+    Path indexed = Files.createDirectories(tempDir.resolve("indexed"));
+    compile(indexed, true, "com/example/mapper/FooMapper",
+        "package com.example.mapper; public interface FooMapper { interface Nested {} } class Other {}");
+    compile(indexed, false, "com/example/other/Bar", "package com.example.other; public class Bar {}");
+    // added to the indexed package after the index was built
+    compile(indexed, false, "com/example/mapper/Unindexed", "package com.example.mapper; class Unindexed {}");
+    Path plain = Files.createDirectories(tempDir.resolve("plain"));
+    compile(plain, false, "com/example/mapper/Extra", "package com.example.mapper; class Extra {}");
+
+    try (URLClassLoader loader = new URLClassLoader(
+        new URL[] { indexed.toUri().toURL(), plain.toUri().toURL() }, currentContextClassLoader)) {
+      Thread.currentThread().setContextClassLoader(loader);
+      // the indexed classes of the covered package, and the classes of the class path entry without index
+      ResolverUtil<Object> resolverUtil = new ResolverUtil<>();
+      resolverUtil.find(new ResolverUtil.IsA(Object.class), "com.example.mapper");
+      assertEquals(new HashSet<>(Arrays.asList("com.example.mapper.FooMapper", "com.example.mapper.FooMapper$Nested",
+          "com.example.mapper.Other", "com.example.mapper.Extra")), classNames(resolverUtil.getClasses()));
+
+      // a package that is not covered by the index is scanned
+      resolverUtil = new ResolverUtil<>();
+      resolverUtil.find(new ResolverUtil.IsA(Object.class), "com.example");
+      assertEquals(new HashSet<>(Arrays.asList("com.example.mapper.FooMapper", "com.example.mapper.FooMapper$Nested",
+          "com.example.mapper.Other", "com.example.mapper.Unindexed", "com.example.mapper.Extra",
+          "com.example.other.Bar")), classNames(resolverUtil.getClasses()));
+    } finally {
+      Thread.currentThread().setContextClassLoader(currentContextClassLoader);
+    }
+  }
+
+  @Test
+  void classIndexProcessorShouldIndexCompiledClasses() throws Exception {
+    Path output = Files.createDirectories(tempDir.resolve("classes"));
+    compile(output, true, "com/example/mapper/FooMapper",
+        "package com.example.mapper; public interface FooMapper { interface Nested {} } class Other {}");
+
+    assertEquals(Arrays.asList("com.example.mapper.*", "com.example.mapper.FooMapper",
+        "com.example.mapper.FooMapper$Nested", "com.example.mapper.Other"),
+        Files.readAllLines(output.resolve(ResolverUtil.CLASS_INDEX_RESOURCE)));
+  }
+
+  private void compile(Path output, boolean index, String className, String code) throws Exception {
+    Path source = tempDir.resolve("src/" + className + ".java");
+    Files.createDirectories(source.getParent());
+    Files.write(source, Collections.singletonList(code));
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+      CompilationTask task = compiler.getTask(null, fileManager, null,
+          Arrays.asList("-d", output.toString(), "-Amybatis.index.packages=com.example.mapper"), null,
+          fileManager.getJavaFileObjects(source.toFile()));
+      task.setProcessors(index ? Collections.singletonList(new ClassIndexProcessor()) : Collections.emptyList());
+      assertTrue(task.call());
+    }
+  }
+
+  private static Set<String> classNames(Set<? extends Class<?>> classes) {
+    Set<String> names = new HashSet<>();
+    classes.forEach(c -> names.add(c.getName()));
+    return names;
+  }
+
   @Test
   void getPackagePath() {
     ResolverUtil resolverUtil = new ResolverUtil();
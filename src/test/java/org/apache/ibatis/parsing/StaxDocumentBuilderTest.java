@@ -0,0 +1,81 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.parsing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.xml.XMLMapperEntityResolver;
+import org.apache.ibatis.io.Resources;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+
+class StaxDocumentBuilderTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = { "org/apache/ibatis/builder/BlogMapper.xml",
+      "org/apache/ibatis/submitted/language/Mapper.xml", "org/apache/ibatis/builder/MapperConfig.xml" })
+  void shouldBuildTheSameDocumentAsTheValidatingParser(String resource) throws Exception {
+    Node expected;
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      expected = new XPathParser(inputStream, true, null, new XMLMapperEntityResolver()).evalNode("/*").getNode();
+    }
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      Document document = StaxDocumentBuilder.parse(inputStream);
+      assertThat(document.getDocumentElement().isEqualNode(expected)).isTrue();
+    }
+  }
+
+  @Test
+  void shouldReplaceEntitiesAndKeepCdataSections() {
+    Document document = parse("<!DOCTYPE mapper SYSTEM \"http://localhost/unknown.dtd\" [<!ENTITY table \"blog\">]>"
+        + "<mapper><select id=\"a&amp;b\">select * from &table; where id &lt; 3<![CDATA[ and id > 1]]></select>"
+        + "</mapper>");
+    XNode select = new XPathParser(document).evalNode("/mapper/select");
+    assertThat(select.getStringAttribute("id")).isEqualTo("a&b");
+    Node body = select.getNode().getFirstChild();
+    assertThat(body.getNodeType()).isEqualTo(Node.TEXT_NODE);
+    assertThat(body.getNodeValue()).isEqualTo("select * from blog where id < 3");
+    assertThat(body.getNextSibling().getNodeType()).isEqualTo(Node.CDATA_SECTION_NODE);
+    assertThat(body.getNextSibling().getNodeValue()).isEqualTo(" and id > 1");
+  }
+
+  @Test
+  void shouldNotResolveExternalEntities() {
+    Document document = parse("<!DOCTYPE mapper [<!ENTITY secret SYSTEM \"file:///etc/passwd\">]>"
+        + "<mapper><sql id=\"a\">x&secret;y</sql></mapper>");
+    assertThat(new XPathParser(document).evalString("/mapper/sql")).isEqualTo("xy");
+  }
+
+  @Test
+  void shouldReportMalformedDocument() {
+    assertThatThrownBy(() -> parse("<mapper><select></mapper>")).isInstanceOf(BuilderException.class)
+        .hasMessageStartingWith("Error creating document instance.");
+  }
+
+  private static Document parse(String xml) {
+    return StaxDocumentBuilder.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+  }
+
+}
@@ -16,11 +16,14 @@
 package org.apache.ibatis.parsing;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -211,6 +214,30 @@ class XPathParserTest {
     assertEquals("employee[${id_var}]_height", node.getValueBasedIdentifier());
   }
 
+  @Test
+  void shouldSelectSimplePathsLikeXPath() {
+    XPathParser parser = new XPathParser(getDocument(resource));
+    XNode employee = parser.evalNode("/employee");
+    XNode birthDate = employee.evalNode("birth_date");
+
+    // each expression compared with an equivalent one that is evaluated by javax.xml.xpath
+    assertEquals(names(employee.evalNodes("self::node()/height | self::node()/first_name | self::node()/blah")),
+        names(employee.evalNodes("height|first_name|blah")));
+    assertEquals(names(parser.evalNodes("/employee/birth_date/child::*")),
+        names(birthDate.evalNodes("/employee/birth_date/*")));
+    assertEquals(names(birthDate.evalNodes("child::*")), names(birthDate.evalNodes("*")));
+    assertEquals("1970", birthDate.evalString("year"));
+    assertEquals("", birthDate.evalString("century"));
+    assertEquals(Boolean.FALSE, birthDate.evalBoolean("century"));
+    assertNull(birthDate.evalNode("century"));
+    assertEquals("day", birthDate.evalNode("/employee/birth_date/day").getName());
+    assertEquals("6", birthDate.evalString("child::month"));
+  }
+
+  private static List<String> names(List<XNode> nodes) {
+    return nodes.stream().map(XNode::getName).collect(Collectors.toList());
+  }
+
   @Test
   void formatXNodeToString() {
     XPathParser parser = new XPathParser(
@@ -17,8 +17,14 @@ package org.apache.ibatis.plugin;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -39,6 +45,99 @@ class PluginTest {
     assertNotEquals("Always", map.toString());
   }
 
+  @Test
+  void interceptorChainShouldApplyInterceptorsInOrderWithSingleProxy() {
+    List<String> calls = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new RecordingMapPlugin("inner", calls));
+    chain.addInterceptor(new RecordingMapPlugin("outer", calls));
+    Map<String, String> map = new HashMap<>();
+    map.put("key", "value");
+    @SuppressWarnings("unchecked")
+    Map<String, String> proxy = (Map<String, String>) chain.pluginAll(map);
+    assertTrue(Proxy.isProxyClass(proxy.getClass()));
+    assertEquals("value", proxy.get("key"));
+    assertEquals(1, proxy.size());
+    assertEquals(Arrays.asList("outer", "inner"), calls);
+  }
+
+  @Test
+  void interceptorChainShouldExposeInnerChainAsTarget() {
+    List<String> calls = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new RecordingMapPlugin("inner", calls));
+    chain.addInterceptor(new TargetCallingMapPlugin());
+    Map<String, String> map = new HashMap<>();
+    @SuppressWarnings("unchecked")
+    Map<String, String> proxy = (Map<String, String>) chain.pluginAll(map);
+    assertEquals(0, proxy.size());
+    // TargetCallingMapPlugin calls get() on its target which is intercepted by the inner plugin
+    assertEquals(Arrays.asList("inner"), calls);
+  }
+
+  @Test
+  void interceptorChainShouldKeepOverriddenPluginMethod() {
+    List<String> calls = new ArrayList<>();
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new RecordingMapPlugin("inner", calls));
+    chain.addInterceptor(new CustomPluginMapPlugin("custom", calls));
+    chain.addInterceptor(new RecordingMapPlugin("outer", calls));
+    @SuppressWarnings("unchecked")
+    Map<String, String> proxy = (Map<String, String>) chain.pluginAll(new HashMap<>());
+    proxy.get("key");
+    assertEquals(Arrays.asList("plugin", "outer", "custom", "inner"), calls);
+  }
+
+  @Test
+  void interceptorChainShouldNotWrapUninterceptedTypes() {
+    InterceptorChain chain = new InterceptorChain();
+    chain.addInterceptor(new AlwaysMapPlugin());
+    List<String> list = new ArrayList<>();
+    assertSame(list, chain.pluginAll(list));
+  }
+
+  @Intercepts({ @Signature(type = Map.class, method = "get", args = { Object.class }) })
+  public static class RecordingMapPlugin implements Interceptor {
+    private final String name;
+    private final List<String> calls;
+
+    RecordingMapPlugin(String name, List<String> calls) {
+      this.name = name;
+      this.calls = calls;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      calls.add(name);
+      return invocation.proceed();
+    }
+  }
+
+  @Intercepts({ @Signature(type = Map.class, method = "get", args = { Object.class }) })
+  public static class CustomPluginMapPlugin extends RecordingMapPlugin {
+    private final List<String> calls;
+
+    CustomPluginMapPlugin(String name, List<String> calls) {
+      super(name, calls);
+      this.calls = calls;
+    }
+
+    @Override
+    public Object plugin(Object target) {
+      calls.add("plugin");
+      return Plugin.wrap(target, this);
+    }
+  }
+
+  @Intercepts({ @Signature(type = Map.class, method = "size", args = {}) })
+  public static class TargetCallingMapPlugin implements Interceptor {
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      ((Map<?, ?>) invocation.getTarget()).get("key");
+      return invocation.proceed();
+    }
+  }
+
   @Intercepts({ @Signature(type = Map.class, method = "get", args = { Object.class }) })
   public static class AlwaysMapPlugin implements Interceptor {
     @Override
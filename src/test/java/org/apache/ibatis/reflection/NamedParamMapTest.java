@@ -0,0 +1,93 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.reflection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.binding.BindingException;
+import org.apache.ibatis.binding.MapperMethod.ParamMap;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+
+class NamedParamMapTest {
+
+  interface Mapper {
+    void select(@Param("id") Integer id, RowBounds rowBounds, @Param("param1") String name, String other);
+  }
+
+  private Object namedParams(Object... args) throws Exception {
+    Method method = Mapper.class.getMethod("select", Integer.class, RowBounds.class, String.class, String.class);
+    Configuration configuration = new Configuration();
+    configuration.setUseActualParamName(false);
+    return new ParamNameResolver(configuration, method).getNamedParams(args);
+  }
+
+  @Test
+  void shouldResolveNamesWithoutCopying() throws Exception {
+    Object params = namedParams(1, RowBounds.DEFAULT, "a", "b");
+    assertThat(params).isInstanceOf(ParamMap.class);
+    @SuppressWarnings("unchecked")
+    Map<String, Object> map = (Map<String, Object>) params;
+    assertThat(map.get("id")).isEqualTo(1);
+    assertThat(map.get("param1")).isEqualTo("a");
+    assertThat(map.get("param2")).isEqualTo("a");
+    assertThat(map.get("2")).isEqualTo("b");
+    assertThat(map.get("param3")).isEqualTo("b");
+    assertThat(map.containsKey("param4")).isFalse();
+    assertThat(map).hasSize(5);
+    assertThatThrownBy(() -> map.get("unknown")).isInstanceOf(BindingException.class)
+        .hasMessageStartingWith("Parameter 'unknown' not found.");
+  }
+
+  @Test
+  void shouldBehaveLikeHashMapOnceModified() throws Exception {
+    @SuppressWarnings("unchecked")
+    Map<String, Object> map = (Map<String, Object>) namedParams(1, RowBounds.DEFAULT, "a", "b");
+    map.put("extra", 3);
+    map.remove("2");
+
+    Map<String, Object> expected = new HashMap<>();
+    expected.put("id", 1);
+    expected.put("param1", "a");
+    expected.put("param2", "a");
+    expected.put("param3", "b");
+    expected.put("extra", 3);
+    assertThat(map).isEqualTo(expected);
+    assertThat(map.keySet()).isEqualTo(expected.keySet());
+    assertThatThrownBy(() -> map.get("2")).isInstanceOf(BindingException.class);
+  }
+
+  @Test
+  void shouldCompareEqualToEquivalentMap() throws Exception {
+    Object params = namedParams(1, RowBounds.DEFAULT, null, "b");
+    ParamMap<Object> expected = new ParamMap<>();
+    expected.put("id", 1);
+    expected.put("param1", null);
+    expected.put("param2", null);
+    expected.put("2", "b");
+    expected.put("param3", "b");
+    assertThat(params).isEqualTo(expected);
+    assertThat(params.hashCode()).isEqualTo(expected.hashCode());
+  }
+
+}
@@ -46,6 +46,15 @@ class ReflectorTest {
     Assertions.assertEquals(Long.class, reflector.getGetterType("id"));
   }
 
+  @Test
+  void shouldWarmUpReflectorsInParallel() {
+    DefaultReflectorFactory reflectorFactory = new DefaultReflectorFactory();
+    reflectorFactory.warmUp(Arrays.asList(Section.class, Child.class));
+    Reflector reflector = reflectorFactory.findForClass(Section.class);
+    Assertions.assertEquals(Long.class, reflector.getGetterType("id"));
+    assertEquals(String.class, reflectorFactory.findForClass(Child.class).getSetterType("id"));
+  }
+
   @Test
   void shouldNotGetClass() {
     ReflectorFactory reflectorFactory = new DefaultReflectorFactory();
@@ -0,0 +1,216 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.ibatis.builder.BuilderException;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.parsing.XNode;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReloadMapperTest {
+
+  private Configuration configuration;
+
+  @BeforeEach
+  void setUp() {
+    configuration = new Configuration();
+    load("reload", "reload.xml", "<select id=\"first\" resultType=\"int\">select 1</select>"
+        + "<select id=\"second\" resultType=\"int\">select 2</select>");
+    load("other", "other.xml", "<select id=\"third\" resultType=\"int\">select 3</select>");
+  }
+
+  @Test
+  void shouldReplaceElementsOfNamespace() {
+    MappedStatement first = configuration.getMappedStatement("reload.first");
+    MappedStatement third = configuration.getMappedStatement("other.third");
+
+    configuration.reloadMapper("reload", "reload.xml",
+        mapper("reload", "<sql id=\"columns\">id</sql>"
+            + "<select id=\"first\" resultType=\"int\">select <include refid=\"columns\"/> from t</select>"
+            + "<select id=\"fourth\" resultType=\"int\">select 4</select>"));
+
+    assertThat(configuration.getMappedStatement("reload.first").getBoundSql(null).getSql().replaceAll("\\s+", " "))
+        .isEqualTo("select id from t");
+    assertThat(configuration.getMappedStatement("first")).isSameAs(configuration.getMappedStatement("reload.first"));
+    assertThat(configuration.getMappedStatement("fourth").getBoundSql(null).getSql()).isEqualTo("select 4");
+    assertThat(configuration.hasStatement("reload.second")).isFalse();
+    assertThat(configuration.hasStatement("second")).isFalse();
+    assertThat(configuration.getSqlFragments()).containsKey("reload.columns");
+    // in-flight executions keep the previous definition
+    assertThat(first.getBoundSql(null).getSql()).isEqualTo("select 1");
+    assertThat(configuration.getMappedStatement("other.third")).isSameAs(third);
+  }
+
+  @Test
+  void shouldKeepPreviousElementsWhenReloadFails() {
+    MappedStatement first = configuration.getMappedStatement("reload.first");
+    MappedStatement second = configuration.getMappedStatement("reload.second");
+
+    assertThatThrownBy(() -> configuration.reloadMapper("reload", "reload.xml",
+        mapper("reload", "<select id=\"first\" resultType=\"int\">select 10</select>"
+            + "<select id=\"fourth\" resultType=\"int\">select 4</select>"
+            + "<select id=\"second\" resultType=\"NoSuchType\">select 20</select>")))
+        .isInstanceOf(BuilderException.class);
+
+    assertThat(configuration.getMappedStatement("reload.first")).isSameAs(first);
+    assertThat(configuration.getMappedStatement("first")).isSameAs(first);
+    assertThat(configuration.getMappedStatement("reload.second")).isSameAs(second);
+    assertThat(configuration.hasStatement("reload.fourth")).isFalse();
+    assertThat(configuration.hasStatement("fourth")).isFalse();
+  }
+
+  @Test
+  void shouldReplaceCacheOfNamespaceWithoutDot() {
+    load("users", "users.xml", "<cache/><select id=\"all\" resultType=\"int\">select 1</select>");
+    Cache cache = configuration.getCache("users");
+
+    configuration.reloadMapper("users", "users.xml",
+        mapper("users", "<cache size=\"10\"/><select id=\"all\" resultType=\"int\">select 2</select>"));
+
+    assertThat(configuration.getCache("users")).isNotSameAs(cache);
+    assertThat(configuration.getMappedStatement("users.all").getCache()).isSameAs(configuration.getCache("users"));
+    assertThat(configuration.getMappedStatement("users.all").getBoundSql(null).getSql()).isEqualTo("select 2");
+  }
+
+  @Test
+  void shouldKeepCacheWithSameSettings() {
+    load("users", "users.xml", "<cache/><select id=\"all\" resultType=\"int\">select 1</select>");
+    load("orders", "orders.xml",
+        "<cache-ref namespace=\"users\"/><select id=\"all\" resultType=\"int\">select 2</select>");
+    Cache cache = configuration.getCache("users");
+    cache.putObject("key", "value");
+
+    configuration.reloadMapper("users", "users.xml",
+        mapper("users", "<cache/><select id=\"all\" resultType=\"int\">select 3</select>"));
+
+    assertThat(configuration.getCache("users")).isSameAs(cache);
+    assertThat(configuration.getMappedStatement("users.all").getCache()).isSameAs(cache);
+    assertThat(configuration.getMappedStatement("orders.all").getCache()).isSameAs(cache);
+    assertThat(cache.getObject("key")).isNull();
+  }
+
+  @Test
+  void shouldNotReplaceCacheSharedByCacheRef() {
+    load("users", "users.xml", "<cache/><select id=\"all\" resultType=\"int\">select 1</select>");
+    load("orders", "orders.xml",
+        "<cache-ref namespace=\"users\"/><select id=\"all\" resultType=\"int\">select 2</select>");
+    Cache cache = configuration.getCache("users");
+
+    assertThatThrownBy(() -> configuration.reloadMapper("users", "users.xml",
+        mapper("users", "<cache size=\"10\"/><select id=\"all\" resultType=\"int\">select 3</select>")))
+        .isInstanceOf(BuilderException.class).hasMessageContaining("[orders]");
+
+    assertThat(configuration.getCache("users")).isSameAs(cache);
+    assertThat(configuration.getMappedStatement("users.all").getBoundSql(null).getSql()).isEqualTo("select 1");
+  }
+
+  @Test
+  void shouldRunQueriesOnPreviousStatementsWhileMapperIsReloaded() {
+    configuration.setEnvironment(new Environment("reload", new JdbcTransactionFactory(),
+        new PooledDataSource("org.hsqldb.jdbcDriver", "jdbc:hsqldb:mem:reload", "sa", "")));
+    load("versions", "versions.xml", versions(0));
+    SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    List<String> results = new ArrayList<>();
+    // queries run by another thread while the statements between the first and the last one are parsed
+    QueryingLanguageDriver.onCreateSqlSource = () -> {
+      Future<String> query = executor.submit(() -> {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+          return sqlSession.selectOne("versions.first") + "/" + sqlSession.selectOne("versions.last");
+        }
+      });
+      try {
+        results.add(query.get());
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    };
+    try {
+      for (int version = 1; version <= 3; version++) {
+        configuration.reloadMapper("versions", "versions.xml", mapper("versions", versions(version)));
+      }
+    } finally {
+      QueryingLanguageDriver.onCreateSqlSource = null;
+      executor.shutdownNow();
+    }
+
+    assertThat(results).containsExactly("0/0", "1/1", "2/2");
+    assertThat(configuration.getMappedStatement("versions.last").getBoundSql(null).getSql()).contains("select 3");
+  }
+
+  @Test
+  void shouldKeepResourceLoadedWhenReloadFails() {
+    assertThatThrownBy(() -> configuration.reloadMapper("reload", "reload.xml",
+        mapper("reload", "<select id=\"first\" resultType=\"NoSuchType\">select 10</select>")))
+        .isInstanceOf(BuilderException.class);
+
+    assertThat(configuration.isResourceLoaded("reload.xml")).isTrue();
+  }
+
+  private void load(String namespace, String resource, String statements) {
+    new XMLMapperBuilder(mapper(namespace, statements), configuration, resource, configuration.getSqlFragments())
+        .parse();
+  }
+
+  private static String versions(int version) {
+    return "<select id=\"first\" resultType=\"int\">select " + version + " from (values(0))</select>"
+        + "<select id=\"middle\" resultType=\"int\" lang=\"" + QueryingLanguageDriver.class.getName()
+        + "\">select 0 from (values(0))</select>" + "<select id=\"last\" resultType=\"int\">select " + version
+        + " from (values(0))</select>";
+  }
+
+  private static InputStream mapper(String namespace, String statements) {
+    String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" ?>\n"
+        + "<!DOCTYPE mapper PUBLIC \"-//mybatis.org//DTD Mapper 3.0//EN\"\n"
+        + "  \"https://mybatis.org/dtd/mybatis-3-mapper.dtd\">\n" + "<mapper namespace=\"" + namespace + "\">"
+        + statements + "</mapper>";
+    return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static class QueryingLanguageDriver extends XMLLanguageDriver {
+    static volatile Runnable onCreateSqlSource;
+
+    @Override
+    public SqlSource createSqlSource(Configuration configuration, XNode script, Class<?> parameterType) {
+      Runnable action = onCreateSqlSource;
+      if (action != null) {
+        action.run();
+      }
+      return super.createSqlSource(configuration, script, parameterType);
+    }
+  }
+
+}
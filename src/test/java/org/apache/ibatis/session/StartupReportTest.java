@@ -0,0 +1,98 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.reflection.Reflector;
+import org.apache.ibatis.submitted.simplelistparameter.Car;
+import org.apache.ibatis.submitted.simplelistparameter.CarMapper;
+import org.junit.jupiter.api.Test;
+
+class StartupReportTest {
+
+  @Test
+  void shouldRecordPhases() throws Exception {
+    Configuration configuration = new Configuration();
+    StartupReport report = new StartupReport();
+    List<StartupReport.Phase> completed = new ArrayList<>();
+    report.addListener(completed::add);
+    configuration.setStartupReport(report);
+
+    configuration.addMappers("org.apache.ibatis.submitted.simplelistparameter");
+    String resource = "org/apache/ibatis/builder/AuthorMapper.xml";
+    try (InputStream inputStream = Resources.getResourceAsStream(resource)) {
+      new XMLMapperBuilder(inputStream, configuration, resource, configuration.getSqlFragments()).parse();
+    }
+    Reflector reflector = configuration.getReflectorFactory().findForClass(Item.class);
+    // the properties are resolved on first use
+    assertThat(report.getPhases(StartupReport.REFLECTOR)).extracting(StartupReport.Phase::getResource)
+        .doesNotContain(Item.class.getName());
+    assertThat(reflector.getGetablePropertyNames()).containsExactly("name");
+
+    assertThat(report.getPhases(StartupReport.MAPPER_SCAN)).extracting(StartupReport.Phase::getResource)
+        .containsExactly("org.apache.ibatis.submitted.simplelistparameter");
+    assertThat(report.getPhases(StartupReport.MAPPER_ANNOTATIONS)).extracting(StartupReport.Phase::getResource)
+        .contains(CarMapper.class.getName());
+    assertThat(report.getPhases(StartupReport.MAPPER_XML)).extracting(StartupReport.Phase::getResource)
+        .containsExactly(resource);
+    assertThat(report.getPhases(StartupReport.PENDING_ELEMENTS)).isNotEmpty();
+    assertThat(report.getPhases(StartupReport.REFLECTOR)).extracting(StartupReport.Phase::getResource)
+        .contains(Car.class.getName(), Item.class.getName());
+    assertThat(report.getSlowest(StartupReport.MAPPER_XML, 5)).hasSize(1);
+    assertThat(report.getTotal(StartupReport.MAPPER_XML, TimeUnit.NANOSECONDS))
+        .isEqualTo(report.getPhases(StartupReport.MAPPER_XML).get(0).getDurationNanos());
+    assertThat(completed).isEqualTo(report.getPhases());
+  }
+
+  @Test
+  void shouldKeepAtMostTheMaximumNumberOfPhases() {
+    StartupReport report = new StartupReport(2);
+    List<StartupReport.Phase> completed = new ArrayList<>();
+    report.addListener(completed::add);
+
+    report.record(StartupReport.REFLECTOR, "a", 1);
+    report.record(StartupReport.REFLECTOR, "b", 2);
+    report.record(StartupReport.REFLECTOR, "c", 3);
+
+    assertThat(report.getPhases()).extracting(StartupReport.Phase::getResource).containsExactly("a", "b");
+    assertThat(report.getDroppedPhaseCount()).isEqualTo(1);
+    // the listeners are notified of all the phases
+    assertThat(completed).extracting(StartupReport.Phase::getResource).containsExactly("a", "b", "c");
+  }
+
+  @Test
+  void shouldRecordNothingByDefault() {
+    Configuration configuration = new Configuration();
+    assertThat(configuration.startPhase(StartupReport.MAPPER_XML, "any")).isSameAs(StartupReport.Step.NONE);
+  }
+
+  static class Item {
+    private String name;
+
+    public String getName() {
+      return name;
+    }
+  }
+
+}
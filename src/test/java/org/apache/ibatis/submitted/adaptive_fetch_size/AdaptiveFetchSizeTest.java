@@ -0,0 +1,128 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.adaptive_fetch_size;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.AdaptiveFetchSize;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveFetchSizeTest {
+
+  private SqlSessionFactory sqlSessionFactory;
+  private final FetchSizeInterceptor interceptor = new FetchSizeInterceptor();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/adaptive_fetch_size/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addInterceptor(interceptor);
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/adaptive_fetch_size/CreateDB.sql");
+  }
+
+  @Test
+  void shouldChooseFetchSizeFromFetchedRows() throws Exception {
+    AdaptiveFetchSize adaptiveFetchSize = getAdaptiveFetchSize("getItems");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getItems()).hasSize(30);
+      sqlSession.clearCache();
+      assertThat(mapper.getItems()).hasSize(30);
+      sqlSession.clearCache();
+      assertThat(sqlSession.<Item> selectList("org.apache.ibatis.submitted.adaptive_fetch_size.Mapper.getItems", null,
+          new RowBounds(5, 5))).hasSize(5);
+    }
+    // the minimum, the expected rows and one more, the rows needed by the row bounds
+    assertThat(interceptor.fetchSizes).containsExactly(5, 31, 10);
+    assertThat(adaptiveFetchSize.getResultSets()).isEqualTo(3);
+    assertThat(adaptiveFetchSize.getTotalRows()).isEqualTo(70);
+    assertThat(adaptiveFetchSize.getMaxRows()).isEqualTo(30);
+    assertThat(adaptiveFetchSize.getAverageRows()).isEqualTo(25.0);
+    assertThat(adaptiveFetchSize.getRowWidth()).isEqualTo(36);
+    assertThat(adaptiveFetchSize.getLastFetchSize()).isEqualTo(10);
+  }
+
+  @Test
+  void shouldRecordRowsFetchedByCursor() throws Exception {
+    AdaptiveFetchSize adaptiveFetchSize = getAdaptiveFetchSize("getItemsCursor");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      try (Cursor<Item> cursor = mapper.getItemsCursor()) {
+        cursor.forEach(item -> {
+        });
+      }
+      try (Cursor<Item> cursor = mapper.getItemsCursor()) {
+        cursor.iterator().next();
+      }
+      try (Cursor<Item> cursor = mapper.getItemsCursor()) {
+        // not iterated, nothing recorded
+      }
+    }
+    assertThat(interceptor.fetchSizes).containsExactly(5, 31, 24);
+    assertThat(adaptiveFetchSize.getResultSets()).isEqualTo(2);
+    assertThat(adaptiveFetchSize.getTotalRows()).isEqualTo(31);
+  }
+
+  @Test
+  void shouldNotOverrideFetchSizeOfStatement() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      assertThat(mapper.getItemsWithFetchSize()).hasSize(30);
+    }
+    assertThat(interceptor.fetchSizes).containsExactly(3);
+    assertThat(getAdaptiveFetchSize("getItemsWithFetchSize").getResultSets()).isZero();
+  }
+
+  private AdaptiveFetchSize getAdaptiveFetchSize(String statement) {
+    return sqlSessionFactory.getConfiguration()
+        .getMappedStatement("org.apache.ibatis.submitted.adaptive_fetch_size.Mapper." + statement)
+        .getAdaptiveFetchSize();
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "parameterize", args = Statement.class))
+  static class FetchSizeInterceptor implements Interceptor {
+    private final List<Integer> fetchSizes = new ArrayList<>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      fetchSizes.add(((Statement) invocation.getArgs()[0]).getFetchSize());
+      return invocation.proceed();
+    }
+  }
+
+}
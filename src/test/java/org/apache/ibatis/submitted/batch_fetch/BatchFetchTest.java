@@ -0,0 +1,137 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.batch_fetch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchFetchTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static final StatementCounter counter = new StatementCounter();
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources.getResourceAsReader("org/apache/ibatis/submitted/batch_fetch/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+    sqlSessionFactory.getConfiguration().addInterceptor(counter);
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/batch_fetch/CreateDB.sql");
+  }
+
+  @BeforeEach
+  void resetCounter() {
+    counter.count.set(0);
+  }
+
+  @Test
+  void shouldLoadNestedSelectsOncePerChunkOfKeys() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrders();
+      assertOrders(orders);
+      // the orders, 3 customers in chunks of 2 and 4 orders in chunks of 2
+      assertThat(counter.count.get()).isEqualTo(5);
+    }
+  }
+
+  @Test
+  void shouldLoadNestedSelectsPerRowWithCursor() throws Exception {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession();
+        Cursor<Order> cursor = sqlSession.getMapper(Mapper.class).getOrdersCursor()) {
+      List<Order> orders = new ArrayList<>();
+      cursor.forEach(orders::add);
+      assertOrders(orders);
+    }
+  }
+
+  @Test
+  void shouldLoadNestedSelectsPerRowWithResultHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = new ArrayList<>();
+      List<String> customerNames = new ArrayList<>();
+      sqlSession.select("org.apache.ibatis.submitted.batch_fetch.Mapper.getOrders", context -> {
+        Order order = (Order) context.getResultObject();
+        // the batched properties are set when the handler receives the object
+        customerNames.add(order.getCustomer().getName());
+        orders.add(order);
+      });
+      assertThat(customerNames).containsExactly("Alice", "Bob", "Carol", "Alice");
+      assertOrders(orders);
+    }
+  }
+
+  @Test
+  void shouldLoadLazyNestedSelectsForAllSiblings() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrdersLazily();
+      assertThat(counter.count.get()).isEqualTo(1);
+      // the items of all the orders, 4 orders in chunks of 2
+      assertThat(orders.get(0).getItems()).extracting(Item::getName).containsExactly("apple", "banana");
+      assertThat(counter.count.get()).isEqualTo(3);
+      assertThat(orders.get(3).getItems()).extracting(Item::getName).containsExactly("date");
+      assertThat(counter.count.get()).isEqualTo(3);
+      // the customers of all the orders, 3 customers in chunks of 2
+      assertThat(orders.get(1).getCustomer().getName()).isEqualTo("Bob");
+      assertThat(counter.count.get()).isEqualTo(5);
+      assertOrders(orders);
+      assertThat(counter.count.get()).isEqualTo(5);
+    }
+  }
+
+  private void assertOrders(List<Order> orders) {
+    assertThat(orders).extracting(Order::getId).containsExactly(1, 2, 3, 4);
+    assertThat(orders).extracting(order -> order.getCustomer().getName()).containsExactly("Alice", "Bob", "Carol",
+        "Alice");
+    assertThat(orders.get(0).getItems()).extracting(Item::getName).containsExactly("apple", "banana");
+    assertThat(orders.get(1).getItems()).extracting(Item::getName).containsExactly("cherry");
+    assertThat(orders.get(2).getItems()).isEmpty();
+    assertThat(orders.get(3).getItems()).extracting(Item::getName).containsExactly("date");
+  }
+
+  @Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class, Integer.class }))
+  static class StatementCounter implements Interceptor {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+      count.incrementAndGet();
+      return invocation.proceed();
+    }
+  }
+
+}
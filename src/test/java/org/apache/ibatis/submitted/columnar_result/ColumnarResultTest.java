@@ -0,0 +1,116 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.columnar_result;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.List;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.executor.ExecutorException;
+import org.apache.ibatis.executor.result.ColumnarResult;
+import org.apache.ibatis.executor.result.ColumnarResult.DecimalColumn;
+import org.apache.ibatis.executor.result.ColumnarResult.StringColumn;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ColumnarResultTest {
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/columnar_result/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/columnar_result/CreateDB.sql");
+  }
+
+  @Test
+  void shouldReadColumnsIntoArrays() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getSales();
+      assertThat(result.getRowCount()).isEqualTo(4);
+      assertThat(result.getColumnCount()).isEqualTo(8);
+
+      assertThat(result.getLongColumn("id").getValues()).containsExactly(1L, 2L, 3L, 4L);
+      assertThat(result.getIntColumn("STORE_ID").getValues()).containsExactly(10, 20, 0, 10);
+      assertThat(result.getIntColumn("STORE_ID").isNull(2)).isTrue();
+      assertThat(result.getIntColumn("STORE_ID").getObject(2)).isNull();
+      assertThat(result.getDoubleColumn("amount").getValues()).containsExactly(1.5, 2.5, 0.0, 4.0);
+      assertThat(result.getDoubleColumn("amount").getNulls().stream()).containsExactly(2);
+
+      StringColumn region = result.getStringColumn("region");
+      assertThat(region.getDictionary()).containsExactly("north", "south");
+      assertThat(region.getCodes()).containsExactly(0, 1, 0, -1);
+      assertThat(region.getString(2)).isEqualTo("north");
+      assertThat(region.getString(3)).isNull();
+
+      DecimalColumn price = result.getDecimalColumn("price");
+      assertThat(price.getScale()).isEqualTo(2);
+      assertThat(price.getUnscaledValues()).containsExactly(250L, 300L, 0L, 125L);
+      assertThat(price.getBigDecimal(0)).isEqualTo(new BigDecimal("2.50"));
+      assertThat(price.getObject(2)).isNull();
+      assertThat(result.getIntColumn("quantity").getValues()).containsExactly(3, 1, 0, 2);
+      assertThat(result.getLongColumn("total").getValues()).containsExactly(10000000000L, 2L, 0L, 3L);
+      assertThat(result.getColumn("sold_on").getObject(0)).isEqualTo(Date.valueOf("2023-01-01"));
+    }
+  }
+
+  @Test
+  void shouldStoreStringsOfHighCardinalityWithoutDictionary() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      ColumnarResult result = sqlSession.getMapper(Mapper.class).getCodes();
+      assertThat(result.getRowCount()).isEqualTo(1000);
+
+      StringColumn code = result.getStringColumn("code");
+      assertThat(code.isDictionaryEncoded()).isFalse();
+      assertThat(code.getValues()).hasSize(1000).startsWith("code1", "code2").endsWith("code1000");
+      assertThat(code.getString(499)).isEqualTo("code500");
+      assertThatThrownBy(code::getDictionary).isInstanceOf(ExecutorException.class);
+
+      StringColumn label = result.getStringColumn("label");
+      assertThat(label.isDictionaryEncoded()).isTrue();
+      assertThat(label.getDictionary()).containsExactly("1", "2", "0");
+      assertThat(label.getValues()).startsWith("1", "2", "0", "1");
+    }
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<ColumnarResult> results = sqlSession
+          .selectList("org.apache.ibatis.submitted.columnar_result.Mapper.getSales", null, new RowBounds(1, 2));
+      assertThat(results).hasSize(1);
+      ColumnarResult result = results.get(0);
+      assertThat(result.getRowCount()).isEqualTo(2);
+      assertThat(result.getLongColumn("id").getValues()).containsExactly(2L, 3L);
+    }
+  }
+
+}
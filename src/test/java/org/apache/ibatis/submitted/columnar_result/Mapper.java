@@ -0,0 +1,30 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.columnar_result;
+
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.executor.result.ColumnarResult;
+
+public interface Mapper {
+
+  @Select("select id, store_id, region, amount, price, quantity, total, sold_on from sales order by id")
+  ColumnarResult getSales();
+
+  @Select("select 'code' || x as code, cast(mod(x, 3) as varchar(1)) as label"
+      + " from unnest(sequence_array(1, 1000, 1)) as t(x) order by x")
+  ColumnarResult getCodes();
+
+}
@@ -16,10 +16,14 @@
 package org.apache.ibatis.submitted.cursor_nested;
 
 import java.io.Reader;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.cursor.defaults.PrefetchingCursor;
+import org.apache.ibatis.executor.ExecutorException;
 import org.apache.ibatis.io.Resources;
 import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
@@ -106,4 +110,47 @@ class CursorNestedTest {
       Assertions.assertTrue(usersCursor.isConsumed());
     }
   }
+
+  @Test
+  void shouldPrefetchUsers() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      List<User> users = new ArrayList<>();
+      try (PrefetchingCursor<User> usersCursor = new PrefetchingCursor<>(mapper.getAllUsers(), 2)) {
+        usersCursor.forEach(users::add);
+        Assertions.assertTrue(usersCursor.isConsumed());
+        Assertions.assertEquals(3, usersCursor.getCurrentIndex());
+      }
+      Assertions.assertEquals(4, users.size());
+      Assertions.assertEquals(2, users.get(0).getGroups().size());
+      Assertions.assertEquals(3, users.get(0).getRoles().size());
+      Assertions.assertEquals(2, users.get(3).getRoles().size());
+    }
+  }
+
+  @Test
+  void shouldStopPrefetchingWhenSessionIsClosed() {
+    Cursor<User> usersCursor;
+    Iterator<User> iterator;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      usersCursor = new PrefetchingCursor<>(sqlSession.getMapper(Mapper.class).getAllUsers(), 1);
+      iterator = usersCursor.iterator();
+      Assertions.assertEquals("User1", iterator.next().getName());
+    }
+    Assertions.assertFalse(usersCursor.isOpen());
+    Assertions.assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  void shouldNotPrefetchNestedSelects() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Cursor<User> usersCursor = sqlSession.getMapper(Mapper.class).getAllUsersWithNestedSelect();
+      Assertions.assertThrows(ExecutorException.class, () -> new PrefetchingCursor<>(usersCursor, 2));
+      // the cursor can still be iterated on the calling thread
+      List<User> users = new ArrayList<>();
+      usersCursor.forEach(users::add);
+      Assertions.assertEquals(4, users.size());
+      Assertions.assertEquals(3, users.get(2).getGroups().size());
+    }
+  }
 }
@@ -0,0 +1,110 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.multiple_resultsets_linking;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.jdbc.ScriptRunner;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class MultipleResultSetsLinkingTest {
+
+  private static final int ORDERS = 1000;
+  private static final int LINES_PER_ORDER = 3;
+
+  private static SqlSessionFactory sqlSessionFactory;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/multiple_resultsets_linking/mybatis-config.xml")) {
+      sqlSessionFactory = new SqlSessionFactoryBuilder().build(reader);
+    }
+
+    DataSource dataSource = sqlSessionFactory.getConfiguration().getEnvironment().getDataSource();
+    try (Connection connection = dataSource.getConnection()) {
+      ScriptRunner runner = new ScriptRunner(connection);
+      runner.setDelimiter("go");
+      runner.setLogWriter(null);
+      runner.setErrorLogWriter(null);
+      BaseDataTest.runScript(runner, "org/apache/ibatis/submitted/multiple_resultsets_linking/CreateDB.sql");
+
+      try (PreparedStatement orders = connection.prepareStatement("insert into orders (id, customer) values (?, ?)");
+          PreparedStatement lines = connection
+              .prepareStatement("insert into order_lines (order_ref, line_number, product) values (?, ?, ?)")) {
+        for (int id = 1; id <= ORDERS; id++) {
+          orders.setInt(1, id);
+          orders.setString(2, "customer" + id);
+          orders.addBatch();
+          for (int line = 1; line <= LINES_PER_ORDER; line++) {
+            lines.setString(1, String.valueOf(id));
+            lines.setInt(2, line);
+            lines.setString(3, "product" + id + "-" + line);
+            lines.addBatch();
+          }
+        }
+        // no order id, linked to the lines without an order ref
+        orders.setNull(1, Types.INTEGER);
+        orders.setString(2, "nobody");
+        orders.addBatch();
+        lines.setNull(1, Types.VARCHAR);
+        lines.setInt(2, 1);
+        lines.setString(3, "orphan");
+        lines.addBatch();
+        // the values are compared as strings, '007' is not the order 7
+        lines.setString(1, "007");
+        lines.setInt(2, 1);
+        lines.setString(3, "padded");
+        lines.addBatch();
+        orders.executeBatch();
+        lines.executeBatch();
+      }
+      connection.commit();
+    }
+  }
+
+  @Test
+  void shouldLinkLinesToTheirOrders() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Order> orders = sqlSession.getMapper(Mapper.class).getOrdersAndLines();
+      assertThat(orders).hasSize(ORDERS + 1);
+      assertThat(orders.get(0).getId()).isNull();
+      assertThat(orders.get(0).getLines()).extracting(OrderLine::getProduct).containsExactly("orphan");
+      for (int id = 1; id <= ORDERS; id++) {
+        Order order = orders.get(id);
+        assertThat(order.getId()).isEqualTo(id);
+        assertThat(order.getLines()).hasSize(LINES_PER_ORDER)
+            .allMatch(line -> line.getOrderRef().equals(String.valueOf(order.getId())));
+        assertThat(order.getLines()).extracting(OrderLine::getLineNumber).containsExactly(1, 2, 3);
+      }
+    }
+  }
+
+}
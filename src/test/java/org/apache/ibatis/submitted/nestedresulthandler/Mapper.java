@@ -22,5 +22,7 @@ public interface Mapper {
 
   List<Person> getPersonsWithItemsOrdered();
 
+  List<Person> getPersonsOrderedById();
+
   List<PersonItemPair> getPersonItemPairs();
 }
@@ -16,6 +16,7 @@
 package org.apache.ibatis.submitted.nestedresulthandler;
 
 import java.io.Reader;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.ibatis.BaseDataTest;
@@ -126,6 +127,31 @@ class NestedResultHandlerTest {
     }
   }
 
+  @Test
+  void testGetPersonOrderedByIdWithHandler() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Person> persons = new ArrayList<>();
+      sqlSession.select("getPersonsOrderedById", context -> {
+        Person person = (Person) context.getResultObject();
+        // each person is complete when it is handled
+        Assertions.assertEquals("sister".equals(person.getName()) || "grandma".equals(person.getName()) ? 2 : 1,
+            person.getItems().size());
+        persons.add(person);
+      });
+      Assertions.assertEquals(3, persons.size());
+    }
+  }
+
+  @Test
+  void testUnorderedGetPersonWithResultOrdered() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      // the rows of grandma are not contiguous, the second one would be mapped to another object
+      PersistenceException e = Assertions.assertThrows(PersistenceException.class,
+          () -> sqlSession.selectList("getPersonsWithItemsOrderedAsResultOrdered"));
+      Assertions.assertTrue(e.getMessage().contains("had already been completed"));
+    }
+  }
+
   @Test // reopen issue 39? (not a bug?)
   void testGetPersonItemPairs() {
     try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
@@ -0,0 +1,141 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_mapping;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.util.Date;
+
+public class Item {
+
+  private final String mappingThread = Thread.currentThread().getName();
+  private Integer id;
+  private String name;
+  private BigDecimal total;
+  private double score;
+  private long quantity;
+  private Boolean available;
+  private LocalDateTime created;
+  private Date createdDate;
+  private LocalDate delivered;
+  private OffsetDateTime shipped;
+  private String shippedText;
+  private OffsetTime cutoff;
+
+  public String getMappingThread() {
+    return mappingThread;
+  }
+
+  public Integer getId() {
+    return id;
+  }
+
+  public void setId(Integer id) {
+    this.id = id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public BigDecimal getTotal() {
+    return total;
+  }
+
+  public void setTotal(BigDecimal total) {
+    this.total = total;
+  }
+
+  public double getScore() {
+    return score;
+  }
+
+  public void setScore(double score) {
+    this.score = score;
+  }
+
+  public long getQuantity() {
+    return quantity;
+  }
+
+  public void setQuantity(long quantity) {
+    this.quantity = quantity;
+  }
+
+  public Boolean getAvailable() {
+    return available;
+  }
+
+  public void setAvailable(Boolean available) {
+    this.available = available;
+  }
+
+  public LocalDateTime getCreated() {
+    return created;
+  }
+
+  public void setCreated(LocalDateTime created) {
+    this.created = created;
+  }
+
+  public Date getCreatedDate() {
+    return createdDate;
+  }
+
+  public void setCreatedDate(Date createdDate) {
+    this.createdDate = createdDate;
+  }
+
+  public LocalDate getDelivered() {
+    return delivered;
+  }
+
+  public void setDelivered(LocalDate delivered) {
+    this.delivered = delivered;
+  }
+
+  public OffsetDateTime getShipped() {
+    return shipped;
+  }
+
+  public void setShipped(OffsetDateTime shipped) {
+    this.shipped = shipped;
+  }
+
+  public String getShippedText() {
+    return shippedText;
+  }
+
+  public void setShippedText(String shippedText) {
+    this.shippedText = shippedText;
+  }
+
+  public OffsetTime getCutoff() {
+    return cutoff;
+  }
+
+  public void setCutoff(OffsetTime cutoff) {
+    this.cutoff = cutoff;
+  }
+
+}
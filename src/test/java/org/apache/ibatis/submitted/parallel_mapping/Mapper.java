@@ -0,0 +1,43 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_mapping;
+
+import java.util.List;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Result;
+import org.apache.ibatis.annotations.Results;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.cursor.Cursor;
+
+public interface Mapper {
+
+  @Select("select id, name, amount, score, quantity, available, created, created as createdDate, delivered,"
+      + " shipped, shipped as shippedText, cutoff from items order by id")
+  @Results(id = "item", value = @Result(property = "total", column = "amount"))
+  List<Item> getItems();
+
+  @Select("select id, name, amount, score, quantity, available, created, created as createdDate, delivered,"
+      + " shipped, shipped as shippedText, cutoff from items order by id")
+  @Results(id = "itemForCursor", value = @Result(property = "total", column = "amount"))
+  Cursor<Item> getItemsCursor();
+
+  @Insert("insert into items (id, name, amount, score, quantity, available, created, delivered, shipped, cutoff)"
+      + " values (#{id}, #{name}, #{total}, #{score}, #{quantity}, #{available}, #{created}, #{delivered},"
+      + " #{shipped}, #{cutoff})")
+  void insertItem(Item item);
+
+}
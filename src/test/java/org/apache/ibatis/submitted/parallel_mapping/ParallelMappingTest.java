@@ -0,0 +1,172 @@
+/*
+ *    Copyright 2009-2023 the original author or authors.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+package org.apache.ibatis.submitted.parallel_mapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.ibatis.BaseDataTest;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class ParallelMappingTest {
+
+  private static final int ITEMS = 2000;
+
+  private static SqlSessionFactory sqlSessionFactory;
+  private static SqlSessionFactory parallelSqlSessionFactory;
+  private static ForkJoinPool pool;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    sqlSessionFactory = build();
+    parallelSqlSessionFactory = build();
+    pool = new ForkJoinPool(4);
+    parallelSqlSessionFactory.getConfiguration().setParallelMappingChunkSize(100);
+    parallelSqlSessionFactory.getConfiguration().setParallelMappingPool(pool);
+
+    BaseDataTest.runScript(sqlSessionFactory.getConfiguration().getEnvironment().getDataSource(),
+        "org/apache/ibatis/submitted/parallel_mapping/CreateDB.sql");
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      Mapper mapper = sqlSession.getMapper(Mapper.class);
+      for (int i = 1; i <= ITEMS; i++) {
+        Item item = new Item();
+        item.setId(i);
+        item.setName(i % 10 == 0 ? null : "item" + i);
+        item.setTotal(i % 7 == 0 ? null : BigDecimal.valueOf(i, 2));
+        item.setScore(i / 3.0);
+        item.setQuantity(i * 1000000000L);
+        item.setAvailable(i % 5 == 0 ? null : i % 2 == 0);
+        item.setCreated(i % 11 == 0 ? null : LocalDateTime.of(2023, 1, 1, 12, 0).plusMinutes(i));
+        item.setDelivered(i % 13 == 0 ? null : LocalDate.of(2023, 1, 1).plusDays(i));
+        ZoneOffset offset = ZoneOffset.ofHours(i % 24 - 11);
+        item.setShipped(i % 17 == 0 ? null : OffsetDateTime.of(2023, 2, 1, 8, 0, 0, 0, offset).plusMinutes(i));
+        item.setCutoff(i % 19 == 0 ? null : OffsetTime.of(17, i % 60, 0, 0, offset));
+        mapper.insertItem(item);
+      }
+      sqlSession.commit();
+    }
+  }
+
+  @AfterAll
+  static void tearDown() {
+    pool.shutdown();
+  }
+
+  private static SqlSessionFactory build() throws Exception {
+    try (Reader reader = Resources
+        .getResourceAsReader("org/apache/ibatis/submitted/parallel_mapping/mybatis-config.xml")) {
+      return new SqlSessionFactoryBuilder().build(reader);
+    }
+  }
+
+  @Test
+  void shouldMapRowsInParallelInOrder() {
+    List<Item> expected;
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      expected = sqlSession.getMapper(Mapper.class).getItems();
+    }
+    List<Item> items;
+    try (SqlSession sqlSession = parallelSqlSessionFactory.openSession()) {
+      items = sqlSession.getMapper(Mapper.class).getItems();
+    }
+    assertThat(items).hasSize(ITEMS).usingRecursiveFieldByFieldElementComparatorIgnoringFields("mappingThread")
+        .containsExactlyElementsOf(expected);
+    // the first row is mapped on the calling thread
+    assertThat(items.get(0).getMappingThread()).doesNotStartWith("ForkJoinPool-");
+    assertThat(items.subList(1, ITEMS)).extracting(Item::getMappingThread)
+        .allMatch(name -> name.startsWith("ForkJoinPool-"));
+    assertThat(expected).extracting(Item::getMappingThread).noneMatch(name -> name.startsWith("ForkJoinPool-"));
+    Item item = items.get(76);
+    assertThat(item.getId()).isEqualTo(77);
+    assertThat(item.getTotal()).isNull();
+    assertThat(item.getAvailable()).isFalse();
+    assertThat(item.getCreated()).isNull();
+    assertThat(item.getCreatedDate()).isNull();
+    assertThat(item.getQuantity()).isEqualTo(77000000000L);
+    assertThat(items.get(0).getDelivered()).isEqualTo(LocalDate.of(2023, 1, 2));
+    Item zoned = items.get(1);
+    assertThat(zoned.getShipped()).isEqualTo(OffsetDateTime.of(2023, 2, 1, 8, 2, 0, 0, ZoneOffset.ofHours(-9)));
+    // as converted by the driver
+    assertThat(zoned.getShippedText()).isEqualTo("2023-02-01 08:02:00.000000-9:00");
+    assertThat(zoned.getCutoff()).isEqualTo(OffsetTime.of(17, 2, 0, 0, ZoneOffset.ofHours(-9)));
+    assertThat(items.get(16).getShipped()).isNull();
+    assertThat(items.get(16).getShippedText()).isNull();
+    assertThat(items.get(18).getCutoff()).isNull();
+  }
+
+  @Test
+  void shouldApplyRowBounds() {
+    try (SqlSession sqlSession = parallelSqlSessionFactory.openSession()) {
+      List<Item> items = sqlSession.selectList("org.apache.ibatis.submitted.parallel_mapping.Mapper.getItems", null,
+          new RowBounds(150, 1000));
+      assertThat(items).hasSize(1000);
+      assertThat(items.get(0).getId()).isEqualTo(151);
+      assertThat(items.get(999).getId()).isEqualTo(1150);
+    }
+  }
+
+  @Test
+  void shouldStopWhenResultHandlerStops() {
+    List<Integer> ids = new ArrayList<>();
+    try (SqlSession sqlSession = parallelSqlSessionFactory.openSession()) {
+      sqlSession.select("org.apache.ibatis.submitted.parallel_mapping.Mapper.getItems", context -> {
+        ids.add(((Item) context.getResultObject()).getId());
+        if (ids.size() == 450) {
+          context.stop();
+        }
+      });
+    }
+    assertThat(ids).hasSize(450);
+    for (int i = 0; i < ids.size(); i++) {
+      assertThat(ids.get(i)).isEqualTo(i + 1);
+    }
+  }
+
+  @Test
+  void shouldMapCursorRowsInParallelInOrder() throws Exception {
+    try (SqlSession sqlSession = parallelSqlSessionFactory.openSession();
+        Cursor<Item> cursor = sqlSession.getMapper(Mapper.class).getItemsCursor()) {
+      int id = 0;
+      for (Item item : cursor) {
+        assertThat(item.getId()).isEqualTo(++id);
+        if (id > 1) {
+          assertThat(item.getMappingThread()).startsWith("ForkJoinPool-");
+        }
+      }
+      assertThat(id).isEqualTo(ITEMS);
+      assertThat(cursor.isConsumed()).isTrue();
+    }
+  }
+
+}
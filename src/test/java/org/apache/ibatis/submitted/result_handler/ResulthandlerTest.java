@@ -16,6 +16,9 @@
 package org.apache.ibatis.submitted.result_handler;
 
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.io.Resources;
@@ -62,4 +65,18 @@ class ResulthandlerTest {
       Assertions.assertEquals(3, userResultHandler.getUsers().size());
     }
   }
+
+  @Test
+  void shouldGetAllUsersInChunks() {
+    try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+      List<Integer> chunkSizes = new ArrayList<>();
+      List<String> names = new ArrayList<>();
+      sqlSession.<User> select("org.apache.ibatis.submitted.result_handler.Mapper.getAllUsers", null, 2, chunk -> {
+        chunkSizes.add(chunk.size());
+        chunk.forEach(user -> names.add(user.getName()));
+      });
+      Assertions.assertEquals(Arrays.asList(2, 1), chunkSizes);
+      Assertions.assertEquals(Arrays.asList("User1", "User2", "User3"), names);
+    }
+  }
 }
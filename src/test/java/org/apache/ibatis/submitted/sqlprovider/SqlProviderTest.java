@@ -28,10 +28,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.ibatis.BaseDataTest;
 import org.apache.ibatis.annotations.DeleteProvider;
 import org.apache.ibatis.annotations.InsertProvider;
+import org.apache.ibatis.annotations.Lang;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.SelectProvider;
 import org.apache.ibatis.annotations.UpdateProvider;
@@ -39,7 +41,10 @@ import org.apache.ibatis.binding.MapperMethod;
 import org.apache.ibatis.builder.BuilderException;
 import org.apache.ibatis.builder.annotation.ProviderContext;
 import org.apache.ibatis.builder.annotation.ProviderSqlSource;
+import org.apache.ibatis.builder.annotation.ThreadSafeProvider;
 import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.scripting.xmltags.XMLLanguageDriver;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSession;
 import org.apache.ibatis.session.SqlSessionFactory;
@@ -694,6 +699,55 @@ class SqlProviderTest {
     }
   }
 
+  @Test
+  void shouldReuseSqlSourceForSameSqlAndThreadSafeProviderInstance() throws NoSuchMethodException {
+    Class<?> mapperType = CachingMapper.class;
+    Method mapperMethod = mapperType.getMethod("select", int.class);
+    CachingMapper.SqlProvider.instances.set(0);
+    CachingMapper.CountingLanguageDriver.count.set(0);
+    ProviderSqlSource sqlSource = new ProviderSqlSource(new Configuration(),
+        mapperMethod.getAnnotation(SelectProvider.class), mapperType, mapperMethod);
+
+    assertEquals("select name from foo where id = ?", sqlSource.getBoundSql(1).getSql());
+    assertEquals("select name from foo where id = ?", sqlSource.getBoundSql(2).getSql());
+    assertEquals("select name from foo", sqlSource.getBoundSql(0).getSql());
+    assertEquals("select name from foo where id = ?", sqlSource.getBoundSql(3).getSql());
+    assertEquals("select name from foo", sqlSource.getBoundSql(0).getSql());
+    assertEquals(1, CachingMapper.SqlProvider.instances.get());
+    // only the scripts are cached
+    assertEquals(3, CachingMapper.CountingLanguageDriver.count.get());
+  }
+
+  public interface CachingMapper {
+
+    @Lang(CountingLanguageDriver.class)
+    @SelectProvider(SqlProvider.class)
+    String select(int id);
+
+    class SqlProvider implements ThreadSafeProvider {
+      static final AtomicInteger instances = new AtomicInteger();
+
+      public SqlProvider() {
+        instances.incrementAndGet();
+      }
+
+      public String provideSql(int id) {
+        return id == 0 ? "select name from foo" : "<script>select name from foo where id = #{id}</script>";
+      }
+    }
+
+    class CountingLanguageDriver extends XMLLanguageDriver {
+      static final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public SqlSource createSqlSource(Configuration configuration, String script, Class<?> parameterType) {
+        count.incrementAndGet();
+        return super.createSqlSource(configuration, script, parameterType);
+      }
+    }
+
+  }
+
   public interface DefaultSqlProviderMapper {
 
     @SelectProvider
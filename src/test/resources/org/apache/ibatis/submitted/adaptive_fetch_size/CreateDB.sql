@@ -0,0 +1,55 @@
+--
+--    Copyright 2009-2023 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       https://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+
+drop table items if exists;
+
+create table items (
+  id int,
+  name varchar(20)
+);
+
+insert into items (id, name) values
+(1, 'item1'),
+(2, 'item2'),
+(3, 'item3'),
+(4, 'item4'),
+(5, 'item5'),
+(6, 'item6'),
+(7, 'item7'),
+(8, 'item8'),
+(9, 'item9'),
+(10, 'item10'),
+(11, 'item11'),
+(12, 'item12'),
+(13, 'item13'),
+(14, 'item14'),
+(15, 'item15'),
+(16, 'item16'),
+(17, 'item17'),
+(18, 'item18'),
+(19, 'item19'),
+(20, 'item20'),
+(21, 'item21'),
+(22, 'item22'),
+(23, 'item23'),
+(24, 'item24'),
+(25, 'item25'),
+(26, 'item26'),
+(27, 'item27'),
+(28, 'item28'),
+(29, 'item29'),
+(30, 'item30');
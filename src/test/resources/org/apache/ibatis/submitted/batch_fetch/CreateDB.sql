@@ -0,0 +1,49 @@
+--
+--    Copyright 2009-2023 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       https://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+drop table orders if exists;
+drop table customers if exists;
+drop table items if exists;
+
+create table customers (
+  id int,
+  name varchar(20)
+);
+
+create table orders (
+  id int,
+  customer_id int
+);
+
+create table items (
+  id int,
+  order_id int,
+  name varchar(20)
+);
+
+insert into customers (id, name) values (1, 'Alice');
+insert into customers (id, name) values (2, 'Bob');
+insert into customers (id, name) values (3, 'Carol');
+
+insert into orders (id, customer_id) values (1, 1);
+insert into orders (id, customer_id) values (2, 2);
+insert into orders (id, customer_id) values (3, 3);
+insert into orders (id, customer_id) values (4, 1);
+
+insert into items (id, order_id, name) values (1, 1, 'apple');
+insert into items (id, order_id, name) values (2, 1, 'banana');
+insert into items (id, order_id, name) values (3, 2, 'cherry');
+insert into items (id, order_id, name) values (4, 4, 'date');
@@ -0,0 +1,34 @@
+--
+--    Copyright 2009-2023 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       https://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+
+drop table sales if exists;
+
+create table sales (
+  id bigint,
+  store_id int,
+  region varchar(20),
+  amount double,
+  price decimal(10, 2),
+  quantity decimal(9, 0),
+  total numeric(15, 0),
+  sold_on date
+);
+
+insert into sales (id, store_id, region, amount, price, quantity, total, sold_on) values(1, 10, 'north', 1.5, 2.50, 3, 10000000000, '2023-01-01');
+insert into sales (id, store_id, region, amount, price, quantity, total, sold_on) values(2, 20, 'south', 2.5, 3.00, 1, 2, '2023-01-02');
+insert into sales (id, store_id, region, amount, price, quantity, total, sold_on) values(3, null, 'north', null, null, null, null, null);
+insert into sales (id, store_id, region, amount, price, quantity, total, sold_on) values(4, 10, null, 4.0, 1.25, 2, 3, '2023-01-04');
@@ -0,0 +1,49 @@
+--
+--    Copyright 2009-2023 the original author or authors.
+--
+--    Licensed under the Apache License, Version 2.0 (the "License");
+--    you may not use this file except in compliance with the License.
+--    You may obtain a copy of the License at
+--
+--       https://www.apache.org/licenses/LICENSE-2.0
+--
+--    Unless required by applicable law or agreed to in writing, software
+--    distributed under the License is distributed on an "AS IS" BASIS,
+--    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--    See the License for the specific language governing permissions and
+--    limitations under the License.
+--
+
+
+drop procedure getordersandlines if exists
+go
+
+drop table order_lines if exists
+go
+
+drop table orders if exists
+go
+
+create table orders (
+  id int,
+  customer varchar(20)
+)
+go
+
+create table order_lines (
+  order_ref varchar(10),
+  line_number int,
+  product varchar(20)
+)
+go
+
+create procedure getordersandlines()
+modifies sql data
+dynamic result sets 2
+BEGIN ATOMIC
+  declare cur1 cursor for select * from orders order by id;
+  declare cur2 cursor for select * from order_lines order by order_ref, line_number;
+  open cur1;
+  open cur2;
+END
+go